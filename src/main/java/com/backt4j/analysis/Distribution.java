@@ -0,0 +1,82 @@
+package com.backt4j.analysis;
+
+import java.util.Arrays;
+
+/***
+ * <p>
+ * The empirical distribution of a statistic over the replays of a {@link MonteCarlo} analysis,
+ * e.g. of the final return.
+ * </p>
+ *
+ * <p>
+ * The values are sorted once, so every quantile is a lookup. Quantiles between two values are
+ * interpolated linearly.
+ * </p>
+ */
+public final class Distribution {
+
+    private final double[] values;
+    private final double mean;
+
+    /***
+     * Takes ownership of {@code valuesArg} and sorts it.
+     */
+    Distribution(double[] valuesArg) {
+        values = valuesArg;
+        Arrays.sort(values);
+        double sum = 0.0;
+        for (double value : values) {
+            sum += value;
+        }
+        mean = values.length > 0 ? sum / values.length : Double.NaN;
+    }
+
+    /***
+     * Returns the value below which the given share of the values lies, e.g. {@code quantile(0.05)}
+     * for the lower end of a 90 percent confidence interval.
+     *
+     * @throws IllegalArgumentException in case {@code p} is not between {@code 0} and {@code 1}.
+     */
+    public double quantile(double p) {
+        if (!(p >= 0.0 && p <= 1.0)) {
+            throw new IllegalArgumentException(
+                    "The quantile must be between 0 and 1, but was " + p);
+        }
+        if (values.length == 0) {
+            return Double.NaN;
+        }
+        double position = p * (values.length - 1);
+        int lower = (int) Math.floor(position);
+        int upper = Math.min(lower + 1, values.length - 1);
+        return values[lower] + (position - lower) * (values[upper] - values[lower]);
+    }
+
+    public double getMedian() {
+        return quantile(0.5);
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getMin() {
+        return values.length > 0 ? values[0] : Double.NaN;
+    }
+
+    public double getMax() {
+        return values.length > 0 ? values[values.length - 1] : Double.NaN;
+    }
+
+    /***
+     * Returns the amount of values, i.e. of replays.
+     */
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public String toString() {
+        return "5%: " + quantile(0.05) + ", median: " + getMedian() + ", 95%: " + quantile(0.95);
+    }
+
+}
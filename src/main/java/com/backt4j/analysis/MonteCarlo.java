@@ -0,0 +1,274 @@
+package com.backt4j.analysis;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.backt4j.core.Result;
+import com.backt4j.core.RiskMetrics;
+
+/***
+ * <p>
+ * A Monte Carlo analysis of the closed trades of a backtest: the sequence of trade returns is
+ * replayed many times in a random order, and the final return, the maximum drawdown and the
+ * volatility of every replay are collected into a {@link Distribution} each, e.g. for confidence
+ * intervals.
+ * </p>
+ *
+ * <p>
+ * A replay either draws as many trades as there are with replacement ({@code BOOTSTRAP}) or
+ * shuffles them ({@code PERMUTATION}), in which case every replay ends with the same return and
+ * only the path to it differs. The trade returns are relative to the initial budget and add up,
+ * like the profits of a {@link com.backt4j.core.StockExchange}. A path is never stored: the
+ * statistics are updated with every trade by a {@link RiskMetrics} instance, so a replay costs
+ * {@code O(1)} memory regardless of the amount of trades.
+ * </p>
+ *
+ * <p>
+ * The replays run as tasks of a {@link ForkJoinPool}. Every task splits its
+ * {@link SplittableRandom} in two for its halves, so the random numbers of a replay only depend on
+ * the seed and the amount of replays, and a run is reproducible on any amount of threads.
+ * </p>
+ *
+ * <pre>
+ * MonteCarlo.Report report = new MonteCarlo.Builder()
+ *         .trades(exchange.getResult())
+ *         .replays(100_000)
+ *         .seed(7)
+ *         .build().run();
+ * double worstDrawdown = report.getMaxDrawdown().quantile(0.95);
+ * </pre>
+ */
+public class MonteCarlo {
+
+    /***
+     * How the trades of a replay are drawn.
+     */
+    public enum Method {
+        /***
+         * Draws as many trades as there are, with replacement.
+         */
+        BOOTSTRAP,
+        /***
+         * Replays every trade exactly once, in a random order.
+         */
+        PERMUTATION
+    }
+
+    /***
+     * The amount of replays a task runs on its own instead of splitting them further.
+     */
+    private static final int CHUNK = 1024;
+
+    private final double[] trades;
+    private final Method method;
+    private final int replays;
+    private final long seed;
+    private final ForkJoinPool pool;
+
+    /***
+     * {@code MonteCarlo} follows the Builder Pattern like {@link ParameterSweep}.
+     */
+    public static class Builder {
+
+        private double[] trades;
+        private Method method = Method.BOOTSTRAP;
+        private int replays = 100_000;
+        private long seed;
+        private ForkJoinPool pool;
+
+        public Builder() {}
+
+        /***
+         * Sets the returns of the closed trades, relative to the initial budget, in the order
+         * they were closed.
+         */
+        public Builder trades(double... returns) {
+            trades = returns.clone();
+            return this;
+        }
+
+        /***
+         * Takes the returns of the closed trades from the performance series of the
+         * {@link Result}, which holds the relative performance after every closed trade.
+         */
+        public Builder trades(Result result) {
+            List<Double> series = result.getPerformanceSeries();
+            trades = new double[series.size()];
+            double previous = 0.0;
+            for (int i = 0; i < trades.length; i++) {
+                trades[i] = series.get(i) - previous;
+                previous = series.get(i);
+            }
+            return this;
+        }
+
+        /***
+         * Sets how the trades of a replay are drawn. Defaults to {@code BOOTSTRAP}.
+         */
+        public Builder method(Method aMethod) {
+            method = aMethod;
+            return this;
+        }
+
+        /***
+         * Sets the amount of replays. Defaults to {@code 100_000}.
+         */
+        public Builder replays(int amount) {
+            if (amount < 1) {
+                throw new IllegalArgumentException("At least one replay must be run.");
+            }
+            replays = amount;
+            return this;
+        }
+
+        /***
+         * Sets the seed of the random numbers. Runs with the same seed, trades and amount of
+         * replays have the same result. Defaults to {@code 0}.
+         */
+        public Builder seed(long aSeed) {
+            seed = aSeed;
+            return this;
+        }
+
+        /***
+         * Sets the pool the replays run on. Defaults to {@code ForkJoinPool.commonPool()}.
+         */
+        public Builder pool(ForkJoinPool aPool) {
+            pool = aPool;
+            return this;
+        }
+
+        public MonteCarlo build() throws Exception {
+            if (trades == null || trades.length == 0) {
+                throw new Exception("Please add the returns of at least one closed trade.");
+            }
+            if (method == null) {
+                throw new Exception("Please add the method the trades are drawn with.");
+            }
+            return new MonteCarlo(this);
+        }
+
+    }
+
+    private MonteCarlo(Builder builder) {
+        trades = builder.trades;
+        method = builder.method;
+        replays = builder.replays;
+        seed = builder.seed;
+        pool = builder.pool != null ? builder.pool : ForkJoinPool.commonPool();
+    }
+
+    /***
+     * Runs all replays and waits for them.
+     */
+    public Report run() {
+        double[] finalReturns = new double[replays];
+        double[] maxDrawdowns = new double[replays];
+        double[] volatilities = new double[replays];
+        pool.invoke(new Replays(0, replays, new SplittableRandom(seed), finalReturns,
+                maxDrawdowns, volatilities));
+        return new Report(new Distribution(finalReturns), new Distribution(maxDrawdowns),
+                new Distribution(volatilities));
+    }
+
+    /***
+     * Splits the range of replays in halves until a task runs at most {@code CHUNK} of them. Each
+     * replay writes its statistics to its own index, so the tasks don't share any state.
+     */
+    private final class Replays extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+        private final double[] finalReturns;
+        private final double[] maxDrawdowns;
+        private final double[] volatilities;
+
+        Replays(int fromArg, int toArg, SplittableRandom randomArg, double[] finalReturnsArg,
+                double[] maxDrawdownsArg, double[] volatilitiesArg) {
+            from = fromArg;
+            to = toArg;
+            random = randomArg;
+            finalReturns = finalReturnsArg;
+            maxDrawdowns = maxDrawdownsArg;
+            volatilities = volatilitiesArg;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK) {
+                int middle = (from + to) >>> 1;
+                // Split before forking, so the halves get the same numbers on any thread.
+                SplittableRandom other = random.split();
+                invokeAll(
+                        new Replays(from, middle, random, finalReturns, maxDrawdowns,
+                                volatilities),
+                        new Replays(middle, to, other, finalReturns, maxDrawdowns,
+                                volatilities));
+                return;
+            }
+
+            RiskMetrics metrics = new RiskMetrics();
+            double[] order = method == Method.PERMUTATION ? trades.clone() : null;
+            for (int replay = from; replay < to; replay++) {
+                // The equity starts at 1, i.e. the initial budget.
+                double equity = 1.0;
+                metrics.reset(equity);
+                if (order != null) {
+                    // Fisher-Yates, shuffling the order of the previous replay again.
+                    for (int i = order.length - 1; i > 0; i--) {
+                        int j = random.nextInt(i + 1);
+                        double swap = order[i];
+                        order[i] = order[j];
+                        order[j] = swap;
+                    }
+                }
+                for (int i = 0; i < trades.length; i++) {
+                    equity += order != null ? order[i] : trades[random.nextInt(trades.length)];
+                    metrics.update(i, equity, 0.0);
+                }
+                finalReturns[replay] = equity - 1.0;
+                maxDrawdowns[replay] = metrics.getMaxDrawdown();
+                volatilities[replay] = metrics.getVolatility();
+            }
+        }
+
+    }
+
+    /***
+     * The distributions of the final return, the maximum drawdown and the volatility of the
+     * returns over all replays. The volatility is the one of the relative changes of the equity
+     * from trade to trade, see {@link RiskMetrics}.
+     */
+    public static final class Report {
+
+        private final Distribution finalReturn;
+        private final Distribution maxDrawdown;
+        private final Distribution volatility;
+
+        private Report(Distribution finalReturnArg, Distribution maxDrawdownArg,
+                Distribution volatilityArg) {
+            finalReturn = finalReturnArg;
+            maxDrawdown = maxDrawdownArg;
+            volatility = volatilityArg;
+        }
+
+        public Distribution getFinalReturn() {
+            return finalReturn;
+        }
+
+        public Distribution getMaxDrawdown() {
+            return maxDrawdown;
+        }
+
+        public Distribution getVolatility() {
+            return volatility;
+        }
+
+    }
+
+}
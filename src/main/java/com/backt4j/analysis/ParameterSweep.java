@@ -0,0 +1,398 @@
+package com.backt4j.analysis;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import com.backt4j.core.Backtest;
+import com.backt4j.core.Exchange;
+import com.backt4j.core.Result;
+import com.backt4j.core.StockExchange;
+import com.backt4j.data.Data;
+import com.backt4j.data.DataCache;
+import com.backt4j.strategy.Strategy;
+
+/***
+ * <p>
+ * Runs a {@link Strategy} with every combination of a grid of parameter values and ranks the
+ * combinations by a score of their {@link Result}.
+ * </p>
+ *
+ * <p>
+ * The {@link Data} is loaded once and shared by all backtests as a read-only view (see
+ * {@link DataCache}). Every combination gets a new {@link Strategy} from the factory and a new
+ * {@link Exchange}, so the backtests don't share any state and run as tasks of a
+ * {@link ForkJoinPool}. The results are ranked while the tasks finish and only the best
+ * {@code top} combinations are kept, so a sweep over many combinations doesn't hold all of their
+ * results.
+ * </p>
+ *
+ * <pre>
+ * List&lt;ParameterSweep.Row&gt; best = new ParameterSweep.Builder()
+ *         .data(new ColumnarCSVData().init("data/"))
+ *         .budget(1_000_000)
+ *         .strategy(parameters -&gt; new TestStrategy(parameters.get("buy"),
+ *                 parameters.get("sell")))
+ *         .parameter("buy", 900.0, 1000.0, 1100.0)
+ *         .parameter("sell", 0.01, 0.02, 0.03)
+ *         .top(5)
+ *         .build().run();
+ * </pre>
+ */
+public class ParameterSweep {
+
+    /***
+     * A ranked combination: its index in the grid, its parameter values, the {@link Result} of its
+     * backtest and the score it was ranked by.
+     */
+    public record Row(int index, Parameters parameters, Result result, double score) {
+    };
+
+    /***
+     * Ranks the rows from the highest score on. Rows with the same score keep the order of the
+     * grid, so the ranking doesn't depend on the order the tasks finish in.
+     */
+    static final Comparator<Row> RANKING = Comparator
+            .comparingDouble((Row row) -> Double.isNaN(row.score()) ? Double.NEGATIVE_INFINITY
+                    : row.score())
+            .reversed().thenComparingInt(Row::index);
+
+    private final Data data;
+    private final String[] names;
+    private final double[][] grid;
+    private final int combinations;
+    private final Function<Parameters, ? extends Strategy> strategyFactory;
+    private final Function<Data, ? extends Exchange> exchangeFactory;
+    private final ToDoubleFunction<Result> score;
+    private final int top;
+    private final ForkJoinPool pool;
+
+    /***
+     * The best rows so far, with the worst of them at the head.
+     */
+    private PriorityQueue<Row> best;
+    private int completed;
+
+    /***
+     * {@code ParameterSweep} follows the Builder Pattern like {@link Backtest}.
+     */
+    public static class Builder {
+
+        private Data data;
+        private final LinkedHashMap<String, double[]> grid = new LinkedHashMap<>();
+        private Function<Parameters, ? extends Strategy> strategyFactory;
+        private Function<Data, ? extends Exchange> exchangeFactory;
+        private ToDoubleFunction<Result> score = Result::getAbsPerformance;
+        private int top = 10;
+        private ForkJoinPool pool;
+
+        public Builder() {}
+
+        /***
+         * Sets the initialized {@link Data} all backtests run on.
+         */
+        public Builder data(Data aData) {
+            data = DataCache.readOnly(aData);
+            return this;
+        }
+
+        /***
+         * Loads the {@link Data} through {@code DataCache.shared()}, so sweeps over the same files
+         * share one parsed copy as well.
+         */
+        public Builder data(String path, Class<? extends Data> type) throws Exception {
+            data = DataCache.shared().get(path, type);
+            return this;
+        }
+
+        /***
+         * Creates the {@link Strategy} of a combination. It is called once per combination, from
+         * the threads of the pool.
+         */
+        public Builder strategy(Function<Parameters, ? extends Strategy> factory) {
+            strategyFactory = factory;
+            return this;
+        }
+
+        /***
+         * Creates the {@link Exchange} of a combination from the shared {@link Data}.
+         */
+        public Builder exchange(Function<Data, ? extends Exchange> factory) {
+            exchangeFactory = factory;
+            return this;
+        }
+
+        /***
+         * Creates a new {@link StockExchange} with the given budget for every combination.
+         */
+        public Builder budget(double budget) {
+            exchangeFactory = sharedData -> new StockExchange(budget, sharedData);
+            return this;
+        }
+
+        /***
+         * Adds a parameter with the values to try. The combinations are ordered like nested
+         * loops, with the parameter added last changing fastest.
+         */
+        public Builder parameter(String name, double... values) {
+            if (values.length == 0) {
+                throw new IllegalArgumentException("Parameter " + name + " has no values.");
+            }
+            if (grid.containsKey(name)) {
+                throw new IllegalArgumentException("Parameter " + name + " was already added.");
+            }
+            grid.put(name, values.clone());
+            return this;
+        }
+
+        /***
+         * Adds a parameter with the values from {@code from} to {@code to}, both inclusive, in
+         * steps of {@code step}. It is named apart from {@code parameter}, so a list of exactly
+         * three values isn't taken for a range.
+         */
+        public Builder range(String name, double from, double to, double step) {
+            if (!(step > 0) || to < from) {
+                throw new IllegalArgumentException("Parameter " + name + " has an empty range.");
+            }
+            int count = (int) Math.floor((to - from) / step + 1e-9) + 1;
+            double[] values = new double[count];
+            for (int i = 0; i < count; i++) {
+                values[i] = from + i * step;
+            }
+            return parameter(name, values);
+        }
+
+        /***
+         * Sets the score the combinations are ranked by, the higher the better. Defaults to the
+         * absolute performance.
+         */
+        public Builder score(ToDoubleFunction<Result> aScore) {
+            score = aScore;
+            return this;
+        }
+
+        /***
+         * Sets the amount of best combinations that are kept. Defaults to {@code 10}.
+         */
+        public Builder top(int amount) {
+            if (amount < 1) {
+                throw new IllegalArgumentException("At least one combination must be kept.");
+            }
+            top = amount;
+            return this;
+        }
+
+        /***
+         * Sets the pool the backtests run on. Defaults to {@code ForkJoinPool.commonPool()}.
+         */
+        public Builder pool(ForkJoinPool aPool) {
+            pool = aPool;
+            return this;
+        }
+
+        public ParameterSweep build() throws Exception {
+            if (data == null) {
+                throw new Exception("Please add the Data the backtests run on.");
+            }
+            if (strategyFactory == null) {
+                throw new Exception("Please add a factory for the Strategy.");
+            }
+            if (exchangeFactory == null) {
+                throw new Exception("Please add a budget or a factory for the Exchange.");
+            }
+            if (grid.isEmpty()) {
+                throw new Exception("Please add at least one parameter.");
+            }
+            return new ParameterSweep(this);
+        }
+
+    }
+
+    private ParameterSweep(Builder builder) {
+        data = builder.data;
+        names = builder.grid.keySet().toArray(new String[0]);
+        grid = builder.grid.values().toArray(new double[0][]);
+        int count = 1;
+        for (double[] values : grid) {
+            count = Math.multiplyExact(count, values.length);
+        }
+        combinations = count;
+        strategyFactory = builder.strategyFactory;
+        exchangeFactory = builder.exchangeFactory;
+        score = builder.score;
+        top = builder.top;
+        pool = builder.pool != null ? builder.pool : ForkJoinPool.commonPool();
+    }
+
+    /***
+     * A copy of {@code sweep} that runs on other data.
+     */
+    private ParameterSweep(ParameterSweep sweep, Data dataArg) {
+        data = DataCache.readOnly(dataArg);
+        names = sweep.names;
+        grid = sweep.grid;
+        combinations = sweep.combinations;
+        strategyFactory = sweep.strategyFactory;
+        exchangeFactory = sweep.exchangeFactory;
+        score = sweep.score;
+        top = sweep.top;
+        pool = sweep.pool;
+    }
+
+    /***
+     * Returns a sweep with the same grid, factories and ranking that runs on the given
+     * {@link Data}, e.g. a {@link com.backt4j.data.SlicedData} view on the data of this sweep.
+     */
+    public ParameterSweep on(Data otherData) {
+        return new ParameterSweep(this, otherData);
+    }
+
+    public Data getData() {
+        return data;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /***
+     * Creates a new {@link Strategy} for the given parameter values with the factory of the sweep.
+     */
+    public Strategy newStrategy(Parameters parameters) {
+        return strategyFactory.apply(parameters);
+    }
+
+    /***
+     * Creates a new {@link Exchange} on the given {@link Data} with the factory of the sweep.
+     */
+    public Exchange newExchange(Data exchangeData) {
+        return exchangeFactory.apply(exchangeData);
+    }
+
+    /***
+     * Returns the amount of combinations in the grid.
+     */
+    public int size() {
+        return combinations;
+    }
+
+    /***
+     * Returns the parameter values of the combination with the given index.
+     */
+    public Parameters parameters(int index) {
+        if (index < 0 || index >= combinations) {
+            throw new IndexOutOfBoundsException(
+                    "Combination " + index + " is out of bounds for " + combinations);
+        }
+        double[] values = new double[grid.length];
+        for (int i = grid.length - 1; i >= 0; i--) {
+            values[i] = grid[i][index % grid[i].length];
+            index /= grid[i].length;
+        }
+        return new Parameters(names, values);
+    }
+
+    /***
+     * Runs the backtests of all combinations and waits for them.
+     *
+     * @return The best combinations, from the highest score on.
+     * @throws Exception the exception of a failed backtest, which stops the sweep.
+     */
+    public List<Row> run() throws Exception {
+        synchronized (this) {
+            best = new PriorityQueue<>(Math.min(top, combinations) + 1, RANKING.reversed());
+            completed = 0;
+        }
+        try {
+            pool.invoke(new Sweep(0, combinations));
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+        return getTable();
+    }
+
+    /***
+     * Returns the exception a task failed with. The pool may wrap it once more.
+     */
+    static Exception unwrap(CompletionException e) {
+        Throwable cause = e;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof Exception exception ? exception : e;
+    }
+
+    /***
+     * Returns the best combinations so far, from the highest score on. It can be called while
+     * {@code run} is in progress.
+     */
+    public synchronized List<Row> getTable() {
+        List<Row> table = new ArrayList<>(best != null ? best : List.of());
+        table.sort(RANKING);
+        return table;
+    }
+
+    /***
+     * Returns the amount of combinations whose backtest finished.
+     */
+    public synchronized int getCompleted() {
+        return completed;
+    }
+
+    private Row runCombination(int index) throws Exception {
+        Parameters parameters = parameters(index);
+        Exchange exchange = newExchange(data);
+        new Backtest.Builder().add(exchange).add(newStrategy(parameters)).quiet().build().run();
+        Result result = exchange.getResult();
+        return new Row(index, parameters, result, score.applyAsDouble(result));
+    }
+
+    private synchronized void offer(Row row) {
+        completed++;
+        if (best.size() < top) {
+            best.add(row);
+        } else if (RANKING.compare(row, best.peek()) < 0) {
+            best.poll();
+            best.add(row);
+        }
+    }
+
+    /***
+     * Splits the range of combinations in halves until every task runs a single backtest.
+     */
+    private final class Sweep extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        Sweep(int fromArg, int toArg) {
+            from = fromArg;
+            to = toArg;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Sweep(from, middle), new Sweep(middle, to));
+                return;
+            }
+            try {
+                offer(runCombination(from));
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }
+
+    }
+
+}
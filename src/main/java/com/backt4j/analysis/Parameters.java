@@ -0,0 +1,80 @@
+package com.backt4j.analysis;
+
+import java.util.Arrays;
+import java.util.List;
+
+/***
+ * <p>
+ * One combination of named parameter values, handed to the strategy factory of a
+ * {@link ParameterSweep}.
+ * </p>
+ *
+ * <p>
+ * All combinations of a sweep share the array of names, so a combination only holds its values.
+ * </p>
+ */
+public final class Parameters {
+
+    private final String[] names;
+    private final double[] values;
+
+    Parameters(String[] namesArg, double[] valuesArg) {
+        names = namesArg;
+        values = valuesArg;
+    }
+
+    /***
+     * Returns the value of the parameter with the given name.
+     *
+     * @throws IllegalArgumentException in case there is no parameter with that name.
+     */
+    public double get(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return values[i];
+            }
+        }
+        throw new IllegalArgumentException(
+                "There is no parameter " + name + ", only " + Arrays.toString(names));
+    }
+
+    /***
+     * Returns the value of the parameter at the given index, in the order the parameters were
+     * added to the sweep.
+     */
+    public double get(int index) {
+        return values[index];
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public List<String> names() {
+        return List.of(names);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Parameters parameters && Arrays.equals(names, parameters.names)
+                && Arrays.equals(values, parameters.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(names) + Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(names[i]).append('=').append(values[i]);
+        }
+        return builder.toString();
+    }
+
+}
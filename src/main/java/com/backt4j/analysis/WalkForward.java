@@ -0,0 +1,380 @@
+package com.backt4j.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RecursiveAction;
+
+import com.backt4j.core.Connection;
+import com.backt4j.core.Exchange;
+import com.backt4j.core.Result;
+import com.backt4j.core.RiskMetrics;
+import com.backt4j.data.BarCursor;
+import com.backt4j.data.ColumnarData;
+import com.backt4j.data.SlicedData;
+import com.backt4j.strategy.Strategy;
+
+/***
+ * <p>
+ * A walk-forward analysis: the parameters of a {@link ParameterSweep} are optimized on a training
+ * window, the best combination is run on the test window right after it, and both windows roll
+ * forward by a step until the data is used up.
+ * </p>
+ *
+ * <p>
+ * The windows are {@link SlicedData} views on the columnar data of the sweep, so no bar is copied
+ * or loaded twice. The windows don't depend on each other and run as tasks of the pool of the
+ * sweep, each with a sweep of its own over its training window. The out-of-sample equity curves of
+ * the test windows are stitched into one curve in the order of the windows: every window starts
+ * with the equity the one before it ended with, by scaling its curve relative to its initial
+ * budget.
+ * </p>
+ *
+ * <pre>
+ * WalkForward.Report report = new WalkForward.Builder()
+ *         .sweep(sweep)
+ *         .train(30 * 86_400)
+ *         .test(7 * 86_400)
+ *         .build().run();
+ * </pre>
+ */
+public class WalkForward {
+
+    /***
+     * A training window and the test window after it, the best combination of the training window
+     * with its score and the out-of-sample {@link Result} of that combination on the test window.
+     * The windows are in the units of the window_start column, from inclusive and to exclusive.
+     */
+    public record Window(int index, long trainFrom, long trainTo, long testFrom, long testTo,
+            Parameters parameters, double trainScore, Result testResult) {
+    };
+
+    private final ParameterSweep sweep;
+    private final ColumnarData data;
+    private final long train;
+    private final long test;
+    private final long step;
+    private final long from;
+    private final long to;
+
+    /***
+     * {@code WalkForward} follows the Builder Pattern like {@link ParameterSweep}.
+     */
+    public static class Builder {
+
+        private ParameterSweep sweep;
+        private long train;
+        private long test;
+        private long step;
+        private Long from;
+        private Long to;
+
+        public Builder() {}
+
+        /***
+         * Sets the sweep whose parameters are optimized. Its {@link com.backt4j.data.Data} must be
+         * {@link ColumnarData}, so the windows can slice it.
+         */
+        public Builder sweep(ParameterSweep aSweep) {
+            sweep = aSweep;
+            return this;
+        }
+
+        /***
+         * Sets the length of the training windows, in the units of the window_start column.
+         */
+        public Builder train(long length) {
+            train = length;
+            return this;
+        }
+
+        /***
+         * Sets the length of the test windows, in the units of the window_start column.
+         */
+        public Builder test(long length) {
+            test = length;
+            return this;
+        }
+
+        /***
+         * Sets how far the windows roll forward. Defaults to the length of the test windows, so
+         * the test windows follow each other without a gap.
+         */
+        public Builder step(long length) {
+            step = length;
+            return this;
+        }
+
+        /***
+         * Sets the window_start the first training window starts at. Defaults to the first bar of
+         * the data.
+         */
+        public Builder from(long timeStamp) {
+            from = timeStamp;
+            return this;
+        }
+
+        /***
+         * Sets the window_start the last test window ends before. Defaults to just after the last
+         * bar of the data.
+         */
+        public Builder to(long timeStamp) {
+            to = timeStamp;
+            return this;
+        }
+
+        public WalkForward build() throws Exception {
+            if (sweep == null) {
+                throw new Exception("Please add the ParameterSweep to optimize.");
+            }
+            if (!(sweep.getData() instanceof ColumnarData)) {
+                throw new Exception("The walk-forward windows can only slice ColumnarData.");
+            }
+            if (train <= 0 || test <= 0) {
+                throw new Exception("The training and test windows must not be empty.");
+            }
+            if (step == 0) {
+                step = test;
+            }
+            if (step < test) {
+                throw new Exception("The step must not be shorter than the test windows, "
+                        + "otherwise they overlap.");
+            }
+            return new WalkForward(this);
+        }
+
+    }
+
+    private WalkForward(Builder builder) {
+        sweep = builder.sweep;
+        data = (ColumnarData) sweep.getData();
+        train = builder.train;
+        test = builder.test;
+        step = builder.step;
+
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        if (builder.from == null || builder.to == null) {
+            for (String ticker : data.getTickers()) {
+                BarCursor bars = data.cursor(ticker);
+                if (bars == null || bars.length() == 0) {
+                    continue;
+                }
+                bars.seek(0);
+                first = Math.min(first, bars.windowStart());
+                bars.seek(bars.length() - 1);
+                last = Math.max(last, bars.windowStart());
+            }
+        }
+        from = builder.from != null ? builder.from : first;
+        to = builder.to != null ? builder.to : last + 1;
+    }
+
+    /***
+     * Returns the training windows with the test windows after them. The last test window may be
+     * cut short by the end of the data.
+     */
+    public List<Window> windows() {
+        List<Window> windows = new ArrayList<>();
+        for (long start = from; start <= to - train - 1; start += step) {
+            long testFrom = start + train;
+            windows.add(new Window(windows.size(), start, testFrom, testFrom,
+                    Math.min(testFrom + test, to), null, Double.NaN, null));
+        }
+        return windows;
+    }
+
+    /***
+     * Optimizes and tests all windows and waits for them.
+     *
+     * @throws Exception the exception of a failed backtest, which stops the analysis.
+     */
+    public Report run() throws Exception {
+        List<Window> windows = windows();
+        if (windows.isEmpty()) {
+            throw new Exception("The data from " + from + " to " + to
+                    + " is too short for a training window of " + train + ".");
+        }
+        Outcome[] outcomes = new Outcome[windows.size()];
+        try {
+            sweep.getPool().invoke(new Windows(windows, outcomes));
+        } catch (CompletionException e) {
+            throw ParameterSweep.unwrap(e);
+        }
+        return new Report(outcomes);
+    }
+
+    /***
+     * Optimizes the parameters on the training window and runs the best combination on the test
+     * window, keeping the equity after every point in time.
+     */
+    private Outcome runWindow(Window window) throws Exception {
+        List<ParameterSweep.Row> table =
+                sweep.on(new SlicedData(data, window.trainFrom(), window.trainTo())).run();
+        ParameterSweep.Row best = table.get(0);
+
+        Exchange exchange =
+                sweep.newExchange(new SlicedData(data, window.testFrom(), window.testTo()));
+        Strategy strategy = sweep.newStrategy(best.parameters());
+        strategy.addConnection(new Connection(exchange, strategy));
+        long[] timeStamps = new long[16];
+        double[] equity = new double[16];
+        int count = 0;
+        while (exchange.hasNext()) {
+            strategy.handleNewBar(exchange.advance());
+            if (count == timeStamps.length) {
+                timeStamps = Arrays.copyOf(timeStamps, count * 2);
+                equity = Arrays.copyOf(equity, count * 2);
+            }
+            timeStamps[count] = exchange.getCurrentTimeStamp();
+            equity[count] = exchange.getRiskMetrics().getEquity();
+            count++;
+        }
+
+        Window tested = new Window(window.index(), window.trainFrom(), window.trainTo(),
+                window.testFrom(), window.testTo(), best.parameters(), best.score(),
+                exchange.getResult());
+        return new Outcome(tested, exchange.getInitialBudget(), Arrays.copyOf(timeStamps, count),
+                Arrays.copyOf(equity, count));
+    }
+
+    /***
+     * A tested window with its out-of-sample equity curve.
+     */
+    private record Outcome(Window window, double initialEquity, long[] timeStamps,
+            double[] equity) {
+    };
+
+    /***
+     * Forks one {@link WindowTask} per window and waits for all of them.
+     */
+    private final class Windows extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Window> windows;
+        private final Outcome[] outcomes;
+
+        Windows(List<Window> windowsArg, Outcome[] outcomesArg) {
+            windows = windowsArg;
+            outcomes = outcomesArg;
+        }
+
+        @Override
+        protected void compute() {
+            List<WindowTask> tasks = new ArrayList<>(windows.size());
+            for (Window window : windows) {
+                tasks.add(new WindowTask(window, outcomes));
+            }
+            invokeAll(tasks);
+        }
+
+    }
+
+    private final class WindowTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Window window;
+        private final Outcome[] outcomes;
+
+        WindowTask(Window windowArg, Outcome[] outcomesArg) {
+            window = windowArg;
+            outcomes = outcomesArg;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                outcomes[window.index()] = runWindow(window);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }
+
+    }
+
+    /***
+     * The tested windows and their out-of-sample equity curves stitched into one.
+     */
+    public static final class Report {
+
+        private final List<Window> windows;
+        private final long[] timeStamps;
+        private final double[] equity;
+        private final Result result;
+
+        private Report(Outcome[] outcomes) {
+            List<Window> tested = new ArrayList<>(outcomes.length);
+            int points = 0;
+            for (Outcome outcome : outcomes) {
+                tested.add(outcome.window());
+                points += outcome.timeStamps().length;
+            }
+            windows = List.copyOf(tested);
+            timeStamps = new long[points];
+            equity = new double[points];
+
+            double initialEquity = outcomes[0].initialEquity();
+            double currentEquity = initialEquity;
+            double exposure = 0.0;
+            RiskMetrics metrics = new RiskMetrics();
+            metrics.reset(initialEquity);
+            int point = 0;
+            for (Outcome outcome : outcomes) {
+                // Each window continues with the equity the one before it ended with.
+                double scale = outcome.initialEquity() != 0.0
+                        ? currentEquity / outcome.initialEquity() : 1.0;
+                for (int i = 0; i < outcome.timeStamps().length; i++) {
+                    timeStamps[point] = outcome.timeStamps()[i];
+                    equity[point] = outcome.equity()[i] * scale;
+                    metrics.update(timeStamps[point], equity[point], 0.0);
+                    point++;
+                }
+                if (outcome.timeStamps().length > 0) {
+                    currentEquity = equity[point - 1];
+                }
+                Double windowExposure = outcome.window().testResult().getExposure();
+                if (windowExposure != null) {
+                    exposure += windowExposure * outcome.timeStamps().length;
+                }
+            }
+
+            result = new Result();
+            metrics.writeTo(result);
+            // The exposure is relative to the equity, so it doesn't change with the scaling.
+            result.setExposure(points > 0 ? exposure / points : 0.0);
+            result.setAbsPerformance(currentEquity - initialEquity);
+            result.setRelPerformance(
+                    initialEquity != 0.0 ? (currentEquity - initialEquity) / initialEquity : 0.0);
+        }
+
+        public List<Window> getWindows() {
+            return windows;
+        }
+
+        /***
+         * Returns the time stamps of the stitched equity curve.
+         */
+        public long[] getTimeStamps() {
+            return timeStamps.clone();
+        }
+
+        /***
+         * Returns the stitched out-of-sample equity after every point in time.
+         */
+        public double[] getEquity() {
+            return equity.clone();
+        }
+
+        /***
+         * Returns the {@link Result} of the stitched equity curve.
+         */
+        public Result getResult() {
+            return result;
+        }
+
+    }
+
+}
@@ -1,11 +1,15 @@
 package com.backt4j.core;
 
 import com.backt4j.strategy.Strategy;
-import com.backt4j.data.DataPoint;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /***
  * <p>
@@ -14,8 +18,9 @@ import java.util.List;
  * </p>
  * 
  * <p>
- * It is possible to handle different instances of an asset at once so e.g. multiple stocks, however
- * make sure, that there is always an equal amount of price data points for every asset available.
+ * It is possible to handle different instances of an asset at once so e.g. multiple stocks. The
+ * {@link Exchange} merges the price data points of all assets by time, so assets without a price
+ * data point at some point in time are simply left out in that round.
  * </p>
  * <p>
  * Also keep in mind that there is no guarantee about the order the prices are fed into the strategy
@@ -39,6 +44,20 @@ public class Backtest {
      * {@link Exchange} instances.
      */
     public Result result;
+    /***
+     * The {@link Result} of every {@link Exchange}, in the order of the connections and their
+     * exchanges.
+     */
+    private List<Result> results;
+    /***
+     * The executor running the connections in parallel, or {@code null} to run them one after
+     * another.
+     */
+    private Executor executor;
+    /***
+     * Whether {@code run} prints the overview of the results.
+     */
+    private boolean printResults;
 
     /***
      * {@code Backtest} follows the Builder Pattern to allow for a more readable and at the same
@@ -49,9 +68,35 @@ public class Backtest {
         private Strategy strategy;
         private List<Exchange> exchanges;
         private List<Connection> customConnections;
+        private Executor executor;
+        private boolean quiet;
 
         public Builder() {}
 
+        /***
+         * Keeps {@code run} from printing the overview of the results, e.g. when many backtests
+         * run one after another. The results are still available through {@code getResults}.
+         */
+        public Builder quiet() {
+            quiet = true;
+            return this;
+        }
+
+        /***
+         * <p>
+         * Runs the connections in parallel on the given executor instead of one after another,
+         * e.g. a fixed thread pool or, on Java 21 and later, a virtual thread per task executor.
+         * The caller keeps ownership of the executor and shuts it down.
+         * </p>
+         * <p>
+         * As the connections run at the same time, they must not share an {@link Exchange}.
+         * </p>
+         */
+        public Builder parallel(Executor anExecutor) {
+            executor = anExecutor;
+            return this;
+        }
+
         public Builder add(Strategy aStrategy) throws Exception {
             if (strategy == null) {
                 strategy = aStrategy;
@@ -108,11 +153,12 @@ public class Backtest {
             if (customConnections == null && exchanges == null && strategy == null) {
                 throw new Exception(
                         "Please add Exchanges and a Strategy Object or a custom Connection.");
-            } else if (customConnections != null) {
-                return new Backtest(customConnections);
-            } else {
-                return new Backtest(strategy, exchanges);
             }
+            Backtest backtest = customConnections != null ? new Backtest(customConnections)
+                    : new Backtest(strategy, exchanges);
+            backtest.executor = executor;
+            backtest.printResults = !quiet;
+            return backtest;
         }
 
     }
@@ -137,14 +183,20 @@ public class Backtest {
      * <p>
      * The {@code run} method iterates through the List of {@code Connection} instances and supplies
      * each {@code Strategy} of a {@code Connection} with all new {@code DataPoint} instances handed
-     * over by an {@link Exchange}. If no {@code Connection} was given during construction of the
-     * {@link Exchange}, the {@link Exchange} will generate one by itself. Please have a look at the
+     * over by its {@link Exchange} instances, interleaved by their time stamps. If no
+     * {@code Connection} was given during construction of the {@link Exchange}, the
+     * {@link Exchange} will generate one by itself. Please have a look at the
      * {@link Backtest.Builder} for further insights. It is supported to run the {@link Strategy}
      * with multiple assets at the same time (further information at {@link Exchange}). Beyond that,
      * it is possible to use multiple {@link Exchanges} from multiple connections to allow for very
      * flexible setups and scenarios.
      * </p>
      * <p>
+     * With an executor given to {@code Builder.parallel}, the connections run at the same time,
+     * one task per connection. The results are printed and collected in the order of the
+     * connections either way.
+     * </p>
+     * <p>
      * The most recent DataPoints are saved in {@code currentPrices} (for each of the multiple
      * assets if applicable).
      * </p>
@@ -156,31 +208,23 @@ public class Backtest {
      * @throws Exception because next() throws an exception in case data is data is {@code null}.
      */
     public void run() throws Exception {
-        for (Connection connection : backtestConnections) {
-            boolean noData = false;
-            while (!noData) {
-                for (Exchange exchange : connection.getExchanges()) {
-                    HashMap<String, DataPoint> nextDataPoint = exchange.next();
-                    for (String key : nextDataPoint.keySet()) {
-                        if (nextDataPoint.get(key) == null) {
-                            noData = true;
-                            break;
-                        } else {
-                            connection.getStrategy().handleNewPrice(nextDataPoint.get(key));
-                        }
-                    }
-                    if (noData) {
-                        break;
-                    }
-                }
+        if (executor != null) {
+            runParallel();
+        } else {
+            for (Connection connection : backtestConnections) {
+                runConnection(connection);
             }
+        }
 
-            // Do all necessary operations that must be finalized before they can be shown.
-            handleRunEnd(connection);
-
+        results = new ArrayList<>();
+        for (Connection connection : backtestConnections) {
             List<Exchange> exchangesList = connection.getExchanges();
             for (Exchange connectionExchange : exchangesList) {
                 result = connectionExchange.getResult();
+                results.add(result);
+                if (!printResults) {
+                    continue;
+                }
 
                 System.out.println("\n");
                 System.out.println("Results of the Backtest");
@@ -188,7 +232,11 @@ public class Backtest {
                 System.out.println("Relative Performance: " + result.getRelPerformance());
                 System.out.println("Absolute Performance: " + result.getAbsPerformance());
                 System.out.println("Max Drawdown: " + result.getMaxDrawdown());
+                System.out.println("Max Drawdown Duration: " + result.getMaxDrawdownDuration());
                 System.out.println("Volatility: " + result.getVolatility());
+                System.out.println("Sharpe Ratio: " + result.getSharpeRatio());
+                System.out.println("Sortino Ratio: " + result.getSortinoRatio());
+                System.out.println("Exposure: " + result.getExposure());
                 System.out.println("\n");
 
             }
@@ -196,35 +244,117 @@ public class Backtest {
         }
     };
 
-    private void handleRunEnd(Connection connection) {
-        for (Exchange exchange : connection.getExchanges()) {
-            double vol = calculateVolatility(exchange.getPerformanceSeries());
-            exchange.getResult().setVolatility(vol);
+    /***
+     * <p>
+     * Runs every connection as a task of the executor and waits for all of them. The results are
+     * collected afterwards in the order of the connections, so they don't depend on the order the
+     * tasks finish in.
+     * </p>
+     * <p>
+     * An {@link Exchange} holds the state of the run, so connections sharing one would corrupt
+     * each other. They are rejected before any connection is started.
+     * </p>
+     * 
+     * @throws Exception the exception of the first connection that failed, in the order of the
+     *         connections.
+     */
+    private void runParallel() throws Exception {
+        Set<Exchange> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Connection connection : backtestConnections) {
+            for (Exchange exchange : connection.getExchanges()) {
+                if (!seen.add(exchange)) {
+                    throw new Exception("An Exchange is part of multiple Connections. "
+                            + "Connections running in parallel need their own Exchange instances.");
+                }
+            }
+        }
+
+        List<CompletableFuture<Void>> runs = new ArrayList<>(backtestConnections.size());
+        for (Connection connection : backtestConnections) {
+            runs.add(CompletableFuture.runAsync(() -> {
+                try {
+                    runConnection(connection);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, executor));
+        }
+
+        for (CompletableFuture<Void> run : runs) {
+            try {
+                run.join();
+            } catch (CompletionException e) {
+                for (CompletableFuture<Void> other : runs) {
+                    other.cancel(false);
+                }
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        }
+    }
+
+    /***
+     * <p>
+     * Feeds the {@link Strategy} of the connection with the bars of all its {@link Exchange}
+     * instances in chronological order.
+     * </p>
+     * <p>
+     * The exchanges are kept in a heap ordered by the time stamp of their next bars, so each point
+     * in time costs {@code O(log e)} for {@code e} exchanges. Exchanges sharing a time stamp are
+     * advanced in the order they were added to the connection, and exchanges without data left
+     * simply leave the heap while the others go on.
+     * </p>
+     */
+    private void runConnection(Connection connection) throws Exception {
+        List<Exchange> exchanges = connection.getExchanges();
+        TickerMerge clock = new TickerMerge(exchanges.size());
+        for (int i = 0; i < exchanges.size(); i++) {
+            if (exchanges.get(i).hasNext()) {
+                clock.add(i, exchanges.get(i).peekTimeStamp());
+            }
+        }
+
+        while (!clock.isEmpty()) {
+            int index = clock.poll();
+            Exchange exchange = exchanges.get(index);
+            connection.getStrategy().handleNewBar(exchange.advance());
+            if (exchange.hasNext()) {
+                clock.add(index, exchange.peekTimeStamp());
+            }
         }
     }
 
+    /***
+     * Returns the population standard deviation of the values, computed in a single pass with
+     * Welford's algorithm (see {@link RiskMetrics}).
+     */
     static double calculateVolatility(List<Double> values) {
         if (values == null || values.size() == 0) {
             throw new IllegalArgumentException("List must not be empty");
         }
 
-        double mean = calculateMean(values);
-        double variance = 0.0;
-
+        double mean = 0.0;
+        double squaredDeviations = 0.0;
+        int count = 0;
         for (double value : values) {
-            variance += Math.pow(value - mean, 2);
+            count++;
+            double deviation = value - mean;
+            mean += deviation / count;
+            squaredDeviations += deviation * (value - mean);
         }
-        variance /= values.size();
 
-        return Math.sqrt(variance);
+        return Math.sqrt(squaredDeviations / count);
     }
 
-    static double calculateMean(List<Double> values) {
-        double sum = 0.0;
-        for (double value : values) {
-            sum += value;
+    /***
+     * Returns the {@link Result} of every {@link Exchange}, in the order of the connections and
+     * their exchanges.
+     */
+    public List<Result> getResults() throws Exception {
+        if (results != null) {
+            return results;
+        } else {
+            throw new Exception("run() must be called before a result can be returned.");
         }
-        return sum / values.size();
     }
 
     /***
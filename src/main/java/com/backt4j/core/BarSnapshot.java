@@ -0,0 +1,109 @@
+package com.backt4j.core;
+
+import java.util.Arrays;
+
+import com.backt4j.data.BarCursor;
+import com.backt4j.data.DataPoint;
+
+/***
+ * <p>
+ * The bars of all assets an {@link Exchange} hands out for one point in time.
+ * </p>
+ *
+ * <p>
+ * Each {@link Exchange} owns a single {@code BarSnapshot} which {@code Exchange.advance()} fills
+ * again on every call, so reading the snapshot doesn't allocate. Its content is only valid until
+ * the next call of {@code advance()} or {@code next()}. The assets are addressed by their index in
+ * the snapshot, from {@code 0} to {@code size() - 1}, and identified by their symbol id (see
+ * {@code Exchange.getSymbols()}).
+ * </p>
+ */
+public final class BarSnapshot {
+
+    private final Exchange exchange;
+    private int[] symbols;
+    private int size;
+    private long timeStamp;
+
+    BarSnapshot(Exchange exchangeArg) {
+        exchange = exchangeArg;
+        symbols = new int[16];
+    }
+
+    void clear(long timeStampArg) {
+        size = 0;
+        timeStamp = timeStampArg;
+    }
+
+    void add(int symbol) {
+        if (size == symbols.length) {
+            symbols = Arrays.copyOf(symbols, size * 2);
+        }
+        symbols[size++] = symbol;
+    }
+
+    /***
+     * Returns the {@link Exchange} the bars belong to.
+     */
+    public Exchange exchange() {
+        return exchange;
+    }
+
+    /***
+     * Returns the amount of assets with a bar at {@code timeStamp()}, {@code 0} once all data was
+     * consumed.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /***
+     * Returns the time stamp shared by all bars of the snapshot.
+     */
+    public long timeStamp() {
+        return timeStamp;
+    }
+
+    /***
+     * Returns the symbol id of the asset at the given index.
+     */
+    public int symbol(int index) {
+        return symbols[index];
+    }
+
+    /***
+     * Returns the ticker of the asset at the given index.
+     */
+    public String ticker(int index) {
+        return exchange.getSymbols().symbol(symbols[index]);
+    }
+
+    /***
+     * Returns the {@link BarCursor} pointing to the bar of the asset at the given index, or
+     * {@code null} if the data of the {@link Exchange} is not columnar.
+     */
+    public BarCursor bar(int index) {
+        return exchange.getCurrentBar(symbols[index]);
+    }
+
+    /***
+     * Returns the {@link DataPoint} of the asset at the given index. For columnar data the record is
+     * created on the first call for every bar.
+     */
+    public DataPoint dataPoint(int index) {
+        return exchange.getCurrentPrice(symbols[index]);
+    }
+
+    /***
+     * Returns the open price of the asset at the given index without creating a
+     * {@link DataPoint}.
+     */
+    public double open(int index) {
+        return exchange.getCurrentOpen(symbols[index]);
+    }
+
+}
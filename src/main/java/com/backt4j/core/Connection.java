@@ -15,7 +15,7 @@ public class Connection {
 
     public Connection(Exchange exchange, Strategy aStrategy) {
         List<Exchange> tmpExchanges = new ArrayList<>();
-        exchanges.add(exchange);
+        tmpExchanges.add(exchange);
         exchanges = tmpExchanges;
 
         strategy = aStrategy;
@@ -1,12 +1,18 @@
 package com.backt4j.core;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 
+import com.backt4j.data.BarCursor;
+import com.backt4j.data.ColumnarData;
 import com.backt4j.data.Data;
 import com.backt4j.data.DataPoint;
+import com.backt4j.data.PagedData;
+import com.backt4j.data.PriceDataPoint;
+import com.backt4j.data.SymbolTable;
 import com.backt4j.strategy.Strategy;
 
 /***
@@ -36,9 +42,9 @@ import com.backt4j.strategy.Strategy;
  * must be checked prior to an transaction so that it never goes below zero. The methods
  * {@code getInitialBudget}, {@code getCurrentPortfolioValue} are used for calculating the
  * performance of the Strategy with every new {@link DataPoint} supplied by {@code next}. The
- * {@code getResult} method provides a {@link Result} Object. The calculation of the volatility is
- * handled by the Framework based on the performance values generated with every new price supplied
- * via {@code next}.
+ * {@code getResult} method provides a {@link Result} Object. The calculation of the volatility,
+ * the drawdown and the other risk measures is handled by the Framework, which updates the
+ * {@link RiskMetrics} with every new price supplied via {@code next}.
  * </p>
  * 
  * <h2>Purpose and functionality</h2>
@@ -68,8 +74,8 @@ import com.backt4j.strategy.Strategy;
  * 
  * <p>
  * It is possible to handle different instances of an asset at once (so e.g. multiple stocks at
- * once), however make sure, that there is always an equal amount of price data for every asset
- * available. For further information visit {@code README.md}
+ * once). The time series of the assets are merged by their time stamps, so they may have gaps and
+ * a different amount of price data. For further information visit {@code README.md}
  * </p>
  * <p>
  * Also there is no guarantee about the order determining how the prices are fed into the strategy.
@@ -89,103 +95,579 @@ public abstract class Exchange {
     private Data data;
     /***
      * <p>
-     * dataIterator stores the Iterators for each of the {@code List<DataPoint>} elements from
-     * {@code Data}. This enables {@code run} to sequentially work through each of the lines of
-     * data, one column at a time. This behavior is desired because if Data contains values for
-     * multiple Assets we want to simulate that the {@code Strategy} receives trade resulted price
-     * updates for each of the Stocks but a different times. As we iterate later {@code HashMap}
-     * through a {@code Set} of keys there is at least theoretically no guaranteed order we get the
-     * new {@link DataPoint} from each of the Iterators stored as values in dataIterators.
+     * Assigns an id to every ticker. For {@link ColumnarData} it starts as a copy of the
+     * {@link SymbolTable} of data, otherwise the tickers of data are added on the first call of
+     * {@code next}. Tickers traded without data, e.g. by a {@link Strategy} calling
+     * {@link StockExchange#marketOrder(String, int, double, long)}, receive an id as well.
      * </p>
      */
-    private HashMap<String, Iterator<DataPoint>> dataIterators;
+    private SymbolTable symbols;
     /***
      * <p>
-     * This list will be used by {@link Backtest} to compute the volatility the Strategies
-     * performance. It is collected automatically using the users implementations of
-     * {@code getInitialBudget} and {@code getCurrentPortfolioValue}.
+     * The symbol ids of all assets in {@code data}. The arrays below hold the state of each asset
+     * at the same index.
      * </p>
      */
-    private List<Double> performanceSeries;
+    private int[] assetSymbols;
+    /***
+     * <p>
+     * dataIterators stores the Iterators for each of the {@code List<DataPoint>} elements from
+     * {@code Data}, pendingDataPoints the next {@link DataPoint} of each Iterator that was not
+     * handed out yet. Both are only used if data is not a {@link ColumnarData} instance.
+     * </p>
+     */
+    private Iterator<DataPoint>[] dataIterators;
+    private DataPoint[] pendingDataPoints;
+    /***
+     * <p>
+     * If data is a {@link ColumnarData} instance, the bars are read through {@link BarCursor}
+     * instances instead of the {@code dataIterators}. After {@code next} was called, each cursor in
+     * currentBars points to the most recent bar of its asset, while the cursor in lookaheadBars
+     * points to the bar after it.
+     * </p>
+     */
+    private BarCursor[] currentBars;
+    private BarCursor[] lookaheadBars;
+    /***
+     * The remaining pages if data is a {@link PagedData} instance.
+     */
+    private PagedData.Pages pages;
+    /***
+     * <p>
+     * The heap of all assets that have data left, ordered by the time stamp of their next
+     * {@link DataPoint}. Every call of {@code next} removes all assets with the smallest time stamp
+     * and adds them again with the time stamp of their following {@link DataPoint}. This takes
+     * {@code O(log k)} per {@link DataPoint} for {@code k} assets.
+     * </p>
+     */
+    private TickerMerge merge;
+    /***
+     * <p>
+     * The performance after every call of {@code next}, only kept if enabled by
+     * {@code setKeepPerformanceSeries}, as the {@link RiskMetrics} hold the statistics of the run
+     * without it. It is collected automatically using the users implementations of
+     * {@code getInitialBudget} and {@code getCurrentPortfolioValue}, and kept in a primitive array
+     * so that recording it doesn't allocate once enough room was reserved.
+     * </p>
+     */
+    private double[] performanceSeries;
+    private int performanceCount;
+    private boolean keepPerformanceSeries;
+    /***
+     * The risk and performance indicators of the equity curve, updated with every call of
+     * {@code next} or {@code advance}.
+     */
+    private final RiskMetrics riskMetrics;
+    /***
+     * The initial budget, read once when the first {@link DataPoint} is handed out.
+     */
+    private double initialBudget;
 
     /***
      * <p>
-     * The Exchange stores the most recent {@code DataPoint} it received.
+     * The Exchange stores the most recent {@code DataPoint} it received for every asset, indexed
+     * by symbol id. For {@link ColumnarData} the most recent bars are available as cursors instead,
+     * and the {@code DataPoint} is only created once it is requested.
      * </p>
      */
-    HashMap<String, DataPoint> currentPrices;
+    private DataPoint[] currentPrices;
+    private BarCursor[] currentBarsBySymbol;
+
+    /***
+     * The snapshot filled by {@code advance}.
+     */
+    private final BarSnapshot snapshot;
 
     public Exchange(Data exchangeData) {
-        data = exchangeData;
-        dataIterators = new HashMap<String, Iterator<DataPoint>>();
-        performanceSeries = new ArrayList<Double>();
-        currentPrices = new HashMap<>();
+        performanceSeries = new double[0];
+        riskMetrics = new RiskMetrics();
+        snapshot = new BarSnapshot(this);
+        setData(exchangeData);
     }
 
     /***
      * <p>
      * Returns a {@link HashMap} containing {@link DataPoint} instead of a single {@link DataPoint}
-     * to allow that the {@link Strategy} can run on multiple Assets all at once. Effectively a
-     * single line of data is returned.
+     * to allow that the {@link Strategy} can run on multiple Assets all at once.
+     * </p>
+     * <p>
+     * The time series of all assets are merged by their time stamps. Every call returns the
+     * {@link DataPoint} instances of all assets that have one at the next point in time, assets
+     * without data at that time are left out. The assets therefore don't need to have the same
+     * amount of {@link DataPoint} instances, but the {@link DataPoint} instances of each asset must
+     * be sorted by time.
+     * </p>
+     * <p>
+     * This creates a new {@link HashMap}, and for {@link ColumnarData} a new {@link DataPoint} per
+     * asset, on every call. Use {@code advance} where that matters.
+     * </p>
      * 
-     * @return {@code HashMap<String, DataPoint>} that represents a single line of data.
-     *         </p>
+     * @return {@code HashMap<String, DataPoint>} with the {@link DataPoint} of every asset that
+     *         has one at the next point in time. The {@link HashMap} is empty once all data was
+     *         consumed.
      * @throws Exception in case data is {@code null}.
      */
     public HashMap<String, DataPoint> next() throws Exception {
+        BarSnapshot bars = advance();
+        HashMap<String, DataPoint> nextDataPoints = new HashMap<>();
+        for (int i = 0; i < bars.size(); i++) {
+            nextDataPoints.put(bars.ticker(i), bars.dataPoint(i));
+        }
+        return nextDataPoints;
+    }
+
+    /***
+     * <p>
+     * Moves on to the next point in time like {@code next}, but returns the assets that have a bar
+     * at that time in the reusable {@link BarSnapshot} of the {@code Exchange}.
+     * </p>
+     * <p>
+     * Once the merge is set up and data is a {@link ColumnarData} instance, a call doesn't allocate
+     * anything: the bars are read through cursors, the portfolio is valued once and the
+     * performance is stored in a primitive array.
+     * </p>
+     * 
+     * @return The snapshot of the {@code Exchange}, which is empty once all data was consumed.
+     * @throws Exception in case data is {@code null}.
+     */
+    public BarSnapshot advance() throws Exception {
+
+        if (!hasNext()) {
+            snapshot.clear(snapshot.timeStamp());
+            return snapshot;
+        }
+
+        // Hand out the bars of all assets with the smallest time stamp.
+        long timeStamp = merge.peekKey();
+        snapshot.clear(timeStamp);
+        while (!merge.isEmpty() && merge.peekKey() == timeStamp) {
+            int asset = merge.poll();
+            int symbol = assetSymbols[asset];
+            if (currentBars != null) {
+                currentBars[asset].next();
+                currentBarsBySymbol[symbol] = currentBars[asset];
+                // The DataPoint is created by getCurrentPrice once it is needed.
+                currentPrices[symbol] = null;
+                if (lookaheadBars[asset].next()) {
+                    merge.add(asset, lookaheadBars[asset].windowStart());
+                }
+            } else {
+                currentPrices[symbol] = pendingDataPoints[asset];
+                pendingDataPoints[asset] = null;
+                if (dataIterators[asset].hasNext()) {
+                    pendingDataPoints[asset] = dataIterators[asset].next();
+                    merge.add(asset, pendingDataPoints[asset].timeStamp());
+                }
+            }
+            snapshot.add(symbol);
+            priceChanged(symbol);
+        }
+
+        recordPerformance();
+
+        return snapshot;
+    }
+
+    /***
+     * Returns {@code true} if there is data left, i.e. the next call of {@code next} or
+     * {@code advance} hands out at least one {@link DataPoint}.
+     * 
+     * @throws Exception in case data is {@code null}.
+     */
+    public boolean hasNext() throws Exception {
 
         if (data == null) {
             throw new Exception("The data classvariable is null. No Data instance was provided.");
         }
 
-        // Create all iterators in case next() is called for the first time. is called for the first
-        // time.
-        if (dataIterators.isEmpty()) {
-            for (String key : data.getValues().keySet()) {
-                dataIterators.put(key, data.getValues().get(key).iterator());
+        // Set up the merge in case it is called for the first time.
+        if (merge == null) {
+            initMerge();
+        }
+
+        return !merge.isEmpty() || nextPage();
+    }
+
+    /***
+     * Returns the time stamp of the {@link DataPoint} instances the next call of {@code next} or
+     * {@code advance} hands out, without consuming them. {@link Backtest} uses it to interleave
+     * multiple {@code Exchange} instances in chronological order.
+     * 
+     * @throws Exception in case data is {@code null} or there is no data left.
+     */
+    public long peekTimeStamp() throws Exception {
+        if (!hasNext()) {
+            throw new Exception("There is no data left to peek at.");
+        }
+        return merge.peekKey();
+    }
+
+    private void initMerge() throws Exception {
+        initialBudget = getInitialBudget();
+        if (riskMetrics.getCount() == 0) {
+            riskMetrics.reset(initialBudget);
+        }
+        if (data instanceof ColumnarData columnarData) {
+            initColumnarMerge(columnarData);
+        } else if (data instanceof PagedData pagedData) {
+            // The pages are merged one after another, starting with an empty merge.
+            pages = pagedData.pages();
+            merge = new TickerMerge(0);
+        } else {
+            HashMap<String, List<DataPoint>> values = data.getValues();
+            String[] tickers = values.keySet().toArray(new String[0]);
+            assetSymbols = new int[tickers.length];
+            dataIterators = newIterators(tickers.length);
+            pendingDataPoints = new DataPoint[tickers.length];
+            merge = new TickerMerge(tickers.length);
+            for (int i = 0; i < tickers.length; i++) {
+                assetSymbols[i] = symbols.intern(tickers[i]);
+            }
+            ensureSymbolCapacity();
+            for (int i = 0; i < tickers.length; i++) {
+                dataIterators[i] = values.get(tickers[i]).iterator();
+                if (dataIterators[i].hasNext()) {
+                    pendingDataPoints[i] = dataIterators[i].next();
+                    merge.add(i, pendingDataPoints[i].timeStamp());
+                }
             }
         }
+    }
 
-        // Iterate of the keys of dataIteratos to get all values from one line of data at once.
-        HashMap<String, DataPoint> nextDataPoints = new HashMap<>();
-        for (String key : data.getValues().keySet()) {
-            if (dataIterators.get(key).hasNext()) {
-                DataPoint dataPoint = dataIterators.get(key).next();
-                nextDataPoints.put(key, dataPoint);
-                currentPrices.put(key, dataPoint);
-            } else {
-                nextDataPoints.put(key, null);
-                currentPrices.put(key, null);
+    /***
+     * Creates an array of iterators, as Java can't create arrays of a parameterized type.
+     */
+    @SuppressWarnings("unchecked")
+    private static Iterator<DataPoint>[] newIterators(int length) {
+        return (Iterator<DataPoint>[]) new Iterator<?>[length];
+    }
+
+    /***
+     * Sets up the merge over the cursors of all assets of {@code columnarData}.
+     */
+    private void initColumnarMerge(ColumnarData columnarData) {
+        // For data the symbol table started as a copy of the one of data, so the ids of the
+        // assets are 0 to n - 1. Pages of PagedData may add new tickers.
+        SymbolTable dataSymbols = columnarData.getSymbols();
+        int assets = dataSymbols.size();
+        assetSymbols = new int[assets];
+        for (int i = 0; i < assets; i++) {
+            assetSymbols[i] = symbols.intern(dataSymbols.symbol(i));
+        }
+        ensureSymbolCapacity();
+
+        currentBars = new BarCursor[assets];
+        lookaheadBars = new BarCursor[assets];
+        merge = new TickerMerge(assets);
+        for (int i = 0; i < assets; i++) {
+            currentBars[i] = columnarData.cursor(i);
+            lookaheadBars[i] = columnarData.cursor(i);
+            if (lookaheadBars[i].next()) {
+                merge.add(i, lookaheadBars[i].windowStart());
             }
         }
+    }
 
-        // Calculate the current performance of the portfolio to later get the volatility of the
-        // respective Strategy.
-        Double portfolioValue =
-                getCurrentPortfolioValue() != null ? getCurrentPortfolioValue() : 0.0;
-        performanceSeries.add((portfolioValue - getInitialBudget()) / getInitialBudget());
+    /***
+     * Moves on to the next page of {@link PagedData} that holds any bars.
+     * 
+     * @return {@code false} if data is not paged or all pages were consumed.
+     */
+    private boolean nextPage() throws Exception {
+        while (pages != null && pages.hasNext()) {
+            // Drop the cursors of the consumed page, so the page can be collected. The most recent
+            // bars are kept as DataPoints.
+            for (int symbol = 0; symbol < currentBarsBySymbol.length; symbol++) {
+                if (currentBarsBySymbol[symbol] != null) {
+                    getCurrentPrice(symbol);
+                    currentBarsBySymbol[symbol] = null;
+                }
+            }
+            // Also before the next page is requested, as that starts the prefetch of the one after
+            // it. Otherwise three pages would be reachable at once.
+            currentBars = null;
+            lookaheadBars = null;
+            initColumnarMerge(pages.next());
+            if (!merge.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        return nextDataPoints;
+    /***
+     * Calculate the current performance of the portfolio and update the {@link RiskMetrics} of the
+     * respective Strategy.
+     */
+    private void recordPerformance() {
+        // The portfolio is valued once per point in time.
+        double value = portfolioValue();
+        if (keepPerformanceSeries) {
+            if (performanceCount == performanceSeries.length) {
+                performanceSeries =
+                        Arrays.copyOf(performanceSeries, Math.max(16, performanceCount * 2));
+            }
+            performanceSeries[performanceCount++] = (value - initialBudget) / initialBudget;
+        }
+        riskMetrics.update(snapshot.timeStamp(), equity(value), grossExposure());
+    }
+
+    /***
+     * <p>
+     * Returns the equity for the {@link RiskMetrics}, i.e. the cash plus the value of the open
+     * positions. It is called exactly once per call of {@code next} or {@code advance}, with the
+     * value {@code portfolioValue} returned for the same point in time.
+     * </p>
+     * <p>
+     * The default implementation returns the portfolio value. Implementations whose portfolio
+     * value doesn't include the cash should override it.
+     * </p>
+     */
+    protected double equity(double currentPortfolioValue) {
+        return currentPortfolioValue;
+    }
+
+    /***
+     * Returns the sum of the absolute values of the open positions for the exposure of the
+     * {@link RiskMetrics}. The default implementation returns {@code 0}.
+     */
+    protected double grossExposure() {
+        return 0.0;
+    }
+
+    /***
+     * Returns the {@link RiskMetrics} of the equity curve so far. They are up to date at any point
+     * of the run, e.g. for a {@link Strategy} to limit its risk.
+     */
+    public RiskMetrics getRiskMetrics() {
+        return riskMetrics;
+    }
+
+    /***
+     * <p>
+     * Returns the current portfolio value for the equity and the performance series. It is called
+     * exactly once per call of {@code next} or {@code advance}.
+     * </p>
+     * <p>
+     * The default implementation unboxes {@code getCurrentPortfolioValue}, treating {@code null}
+     * as {@code 0}. Implementations that keep the value as a primitive should override it, so the
+     * value isn't boxed on every call.
+     * </p>
+     */
+    protected double portfolioValue() {
+        Double portfolioValue = getCurrentPortfolioValue();
+        return portfolioValue != null ? portfolioValue : 0.0;
+    }
+
+    /***
+     * Called by {@code next} and {@code advance} for every asset with a new bar, before the
+     * portfolio is valued. Implementations that keep a running portfolio value can update the
+     * position of the asset here instead of valuing the whole portfolio on every call.
+     */
+    protected void priceChanged(int symbol) {
+    }
+
+    /***
+     * Keeps the performance after every point in time, see {@code getPerformanceSeries}. It is
+     * off by default, so the memory of a run doesn't grow with its length.
+     */
+    public void setKeepPerformanceSeries(boolean keep) {
+        keepPerformanceSeries = keep;
+    }
+
+    public boolean isKeepingPerformanceSeries() {
+        return keepPerformanceSeries;
+    }
+
+    /***
+     * Reserves room in the performance series for the given amount of points in time, e.g. the
+     * amount of bars of the longest time series in data. Only useful if the series is kept.
+     */
+    public void reservePerformance(int points) {
+        if (performanceSeries.length < points) {
+            performanceSeries = Arrays.copyOf(performanceSeries, points);
+        }
+    }
+
+    /***
+     * Grows the arrays indexed by symbol id to the size of the {@link SymbolTable}.
+     */
+    private void ensureSymbolCapacity() {
+        if (currentPrices.length < symbols.size()) {
+            int capacity = Math.max(symbols.size(), currentPrices.length * 2);
+            currentPrices = Arrays.copyOf(currentPrices, capacity);
+            currentBarsBySymbol = Arrays.copyOf(currentBarsBySymbol, capacity);
+        }
+    }
+
+    /***
+     * Returns the {@link SymbolTable} of the {@code Exchange}.
+     */
+    public SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    /***
+     * Returns the symbol id of the ticker, assigning a new one if the ticker is unknown so far.
+     */
+    public int symbolOf(String ticker) {
+        int symbol = symbols.intern(ticker);
+        ensureSymbolCapacity();
+        return symbol;
+    }
+
+    /***
+     * <p>
+     * Returns the {@link BarCursor} of the given asset, pointing to the most recent bar of the
+     * asset returned by {@code next}. Reading the bar through the cursor doesn't allocate, so
+     * strategies can use it instead of the {@link DataPoint} handed over to them.
+     * </p>
+     * 
+     * @param ticker The ticker of the asset.
+     * @return The cursor or {@code null} if data is not a {@link ColumnarData} or
+     *         {@link PagedData} instance, the asset is unknown or it has no bars on the current page
+     *         of {@link PagedData}.
+     */
+    public BarCursor getCurrentBar(String ticker) {
+        return getCurrentBar(symbols.idOf(ticker));
+    }
+
+    /***
+     * The counterpart of {@code getCurrentBar(String)} taking the symbol id of the asset.
+     */
+    public BarCursor getCurrentBar(int symbol) {
+        if (symbol < 0 || symbol >= currentBarsBySymbol.length) {
+            return null;
+        }
+        return currentBarsBySymbol[symbol];
+    }
+
+    /***
+     * Returns the most recent {@link DataPoint} of the given asset or {@code null} if there is
+     * none yet.
+     */
+    public DataPoint getCurrentPrice(String ticker) {
+        return getCurrentPrice(symbols.idOf(ticker));
+    }
+
+    /***
+     * The counterpart of {@code getCurrentPrice(String)} taking the symbol id of the asset.
+     */
+    public DataPoint getCurrentPrice(int symbol) {
+        if (symbol < 0 || symbol >= currentPrices.length) {
+            return null;
+        }
+        if (currentPrices[symbol] == null && currentBarsBySymbol[symbol] != null) {
+            currentPrices[symbol] = currentBarsBySymbol[symbol].toDataPoint();
+        }
+        return currentPrices[symbol];
+    }
+
+    /***
+     * Returns the open price of the most recent bar of the given asset without creating a
+     * {@link DataPoint}, or {@code NaN} if there is none yet.
+     */
+    public double getCurrentOpen(int symbol) {
+        if (symbol < 0 || symbol >= currentPrices.length) {
+            return Double.NaN;
+        }
+        if (currentBarsBySymbol[symbol] != null) {
+            return currentBarsBySymbol[symbol].open();
+        }
+        return currentPrices[symbol] instanceof PriceDataPoint dataPoint ? dataPoint.open()
+                : Double.NaN;
+    }
+
+    /***
+     * Returns the high price of the most recent bar of the given asset without creating a
+     * {@link DataPoint}, or {@code NaN} if there is none yet.
+     */
+    public double getCurrentHigh(int symbol) {
+        if (symbol < 0 || symbol >= currentPrices.length) {
+            return Double.NaN;
+        }
+        if (currentBarsBySymbol[symbol] != null) {
+            return currentBarsBySymbol[symbol].high();
+        }
+        return currentPrices[symbol] instanceof PriceDataPoint dataPoint ? dataPoint.high()
+                : Double.NaN;
+    }
+
+    /***
+     * Returns the low price of the most recent bar of the given asset without creating a
+     * {@link DataPoint}, or {@code NaN} if there is none yet.
+     */
+    public double getCurrentLow(int symbol) {
+        if (symbol < 0 || symbol >= currentPrices.length) {
+            return Double.NaN;
+        }
+        if (currentBarsBySymbol[symbol] != null) {
+            return currentBarsBySymbol[symbol].low();
+        }
+        return currentPrices[symbol] instanceof PriceDataPoint dataPoint ? dataPoint.low()
+                : Double.NaN;
+    }
+
+    /***
+     * Returns the time stamp of the point in time the {@code Exchange} was last advanced to.
+     */
+    public long getCurrentTimeStamp() {
+        return snapshot.timeStamp();
     }
 
     public Data getData() {
         return data;
     }
 
+    /***
+     * Replaces data. The symbol ids are assigned again and the next call of {@code next} starts
+     * with the first {@link DataPoint} of the new data.
+     */
     public void setData(Data data) {
         this.data = data;
+        merge = null;
+        if (pages != null) {
+            pages.close();
+            pages = null;
+        }
+        symbols = data instanceof ColumnarData columnarData
+                ? new SymbolTable(columnarData.getSymbols())
+                : new SymbolTable();
+        currentPrices = new DataPoint[Math.max(symbols.size(), 16)];
+        currentBarsBySymbol = new BarCursor[currentPrices.length];
     }
 
     /***
-     * This method will be called by the {@link Backtest} class during calculation of the
-     * volatility.
-     * 
-     * @return
+     * Returns a boxed copy of the performance series, which is empty unless it is kept (see
+     * {@code setKeepPerformanceSeries}). The statistics of the run are available through
+     * {@code getRiskMetrics} either way.
      */
     public List<Double> getPerformanceSeries() {
-        return performanceSeries;
+        List<Double> series = new ArrayList<>(performanceCount);
+        for (int i = 0; i < performanceCount; i++) {
+            series.add(performanceSeries[i]);
+        }
+        return series;
     };
 
+    /***
+     * Returns the amount of points in the performance series, {@code 0} unless it is kept.
+     */
+    public int getPerformanceCount() {
+        return performanceCount;
+    }
+
+    /***
+     * Returns the performance at the given point in time without boxing it.
+     */
+    public double getPerformance(int index) {
+        if (index < 0 || index >= performanceCount) {
+            throw new IndexOutOfBoundsException(
+                    "Index " + index + " is out of bounds for length " + performanceCount);
+        }
+        return performanceSeries[index];
+    }
+
     /***
      * <p>
      * Should return the initial budget that was allocated to test the {@link Strategy} with. It is
@@ -0,0 +1,325 @@
+package com.backt4j.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/***
+ * <p>
+ * The resting limit, stop and stop-limit orders of every stock at a {@link StockExchange}, indexed
+ * by symbol id.
+ * </p>
+ *
+ * <p>
+ * Every stock has four books sorted by price: buy limits, sell limits, buy stops and sell stops.
+ * Orders with the same price queue up in the order they were placed. As a bar can only cross the
+ * orders priced within its low and high, the {@code StockExchange} takes the crossing orders from
+ * the best end of each book and stops at the first order that is not crossed. Matching a bar
+ * therefore costs {@code O(log n)} per crossing order, no matter how many orders keep resting.
+ * </p>
+ */
+public final class OrderBook {
+
+    public enum Type {
+        LIMIT, STOP, STOP_LIMIT
+    }
+
+    public enum Status {
+        OPEN, FILLED, CANCELLED, REJECTED
+    }
+
+    /***
+     * <p>
+     * An order resting in the {@link OrderBook}. Like for {@code marketOrder} the sign of the
+     * amount tells whether it buys or sells.
+     * </p>
+     * <p>
+     * A stop-limit order rests in the book of the stops until its stop price is reached and in
+     * the book of the limits afterwards, see {@code isTriggered()}.
+     * </p>
+     */
+    public static final class Order {
+
+        private final int symbol;
+        private final int amount;
+        private final Type type;
+        private final double limitPrice;
+        private final double stopPrice;
+        private final long timeStamp;
+        private boolean triggered;
+        private Status status;
+        private double fillPrice;
+        private long fillTimeStamp;
+
+        Order(int symbolArg, int amountArg, Type typeArg, double limitPriceArg,
+                double stopPriceArg, long timeStampArg) {
+            symbol = symbolArg;
+            amount = amountArg;
+            type = typeArg;
+            limitPrice = limitPriceArg;
+            stopPrice = stopPriceArg;
+            timeStamp = timeStampArg;
+            status = Status.OPEN;
+            fillPrice = Double.NaN;
+        }
+
+        public int symbol() {
+            return symbol;
+        }
+
+        public int amount() {
+            return amount;
+        }
+
+        public boolean isBuy() {
+            return amount > 0;
+        }
+
+        public Type type() {
+            return type;
+        }
+
+        /***
+         * Returns the limit price, or {@code NaN} for a stop order.
+         */
+        public double limitPrice() {
+            return limitPrice;
+        }
+
+        /***
+         * Returns the stop price, or {@code NaN} for a limit order.
+         */
+        public double stopPrice() {
+            return stopPrice;
+        }
+
+        /***
+         * Returns the time stamp the order was placed at.
+         */
+        public long timeStamp() {
+            return timeStamp;
+        }
+
+        /***
+         * Returns {@code true} once the stop price of a stop-limit order was reached, i.e. the
+         * order became a limit order.
+         */
+        public boolean isTriggered() {
+            return triggered;
+        }
+
+        public Status status() {
+            return status;
+        }
+
+        /***
+         * Returns the price the order was filled at, or {@code NaN} if it is not filled.
+         */
+        public double fillPrice() {
+            return fillPrice;
+        }
+
+        /***
+         * Returns the time stamp of the bar that filled the order.
+         */
+        public long fillTimeStamp() {
+            return fillTimeStamp;
+        }
+
+        /***
+         * Returns the price the order is sorted by in its current book.
+         */
+        double bookPrice() {
+            return type == Type.LIMIT || triggered ? limitPrice : stopPrice;
+        }
+
+        boolean restsWithLimits() {
+            return type == Type.LIMIT || triggered;
+        }
+
+        void trigger() {
+            triggered = true;
+        }
+
+        void fill(double price, long timeStampArg) {
+            status = Status.FILLED;
+            fillPrice = price;
+            fillTimeStamp = timeStampArg;
+        }
+
+        void close(Status statusArg) {
+            status = statusArg;
+        }
+
+        @Override
+        public String toString() {
+            return "Order[" + type + " " + amount + " limit " + limitPrice + " stop " + stopPrice
+                    + " " + status + "]";
+        }
+
+    }
+
+    private TreeMap<Double, ArrayDeque<Order>>[] buyLimits;
+    private TreeMap<Double, ArrayDeque<Order>>[] sellLimits;
+    private TreeMap<Double, ArrayDeque<Order>>[] buyStops;
+    private TreeMap<Double, ArrayDeque<Order>>[] sellStops;
+    /***
+     * The amount of open orders of every stock, so stocks without orders are skipped at once.
+     */
+    private int[] openOrders;
+
+    OrderBook() {
+        buyLimits = newBooks(0);
+        sellLimits = newBooks(0);
+        buyStops = newBooks(0);
+        sellStops = newBooks(0);
+        openOrders = new int[0];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TreeMap<Double, ArrayDeque<Order>>[] newBooks(int capacity) {
+        return (TreeMap<Double, ArrayDeque<Order>>[]) new TreeMap<?, ?>[capacity];
+    }
+
+    void ensureCapacity(int symbols) {
+        if (symbols <= openOrders.length) {
+            return;
+        }
+        int capacity = Math.max(symbols, openOrders.length * 2);
+        buyLimits = Arrays.copyOf(buyLimits, capacity);
+        sellLimits = Arrays.copyOf(sellLimits, capacity);
+        buyStops = Arrays.copyOf(buyStops, capacity);
+        sellStops = Arrays.copyOf(sellStops, capacity);
+        openOrders = Arrays.copyOf(openOrders, capacity);
+    }
+
+    /***
+     * Returns the amount of open orders of the stock.
+     */
+    public int openOrders(int symbol) {
+        return symbol >= 0 && symbol < openOrders.length ? openOrders[symbol] : 0;
+    }
+
+    /***
+     * Returns a copy of the open orders of the stock: the buy limits from the highest price on,
+     * the sell limits from the lowest price on, and the stops in the same manner.
+     */
+    public List<Order> getOpenOrders(int symbol) {
+        List<Order> orders = new ArrayList<>(openOrders(symbol));
+        if (openOrders(symbol) > 0) {
+            addAll(orders, buyLimits[symbol], true);
+            addAll(orders, sellLimits[symbol], false);
+            addAll(orders, buyStops[symbol], false);
+            addAll(orders, sellStops[symbol], true);
+        }
+        return orders;
+    }
+
+    private static void addAll(List<Order> orders, TreeMap<Double, ArrayDeque<Order>> book,
+            boolean descending) {
+        if (book != null) {
+            for (ArrayDeque<Order> level : descending ? book.descendingMap().values()
+                    : book.values()) {
+                orders.addAll(level);
+            }
+        }
+    }
+
+    void add(Order order) {
+        int symbol = order.symbol();
+        TreeMap<Double, ArrayDeque<Order>>[] books = booksOf(order);
+        if (books[symbol] == null) {
+            books[symbol] = new TreeMap<>();
+        }
+        books[symbol].computeIfAbsent(order.bookPrice(), price -> new ArrayDeque<>())
+                .addLast(order);
+        openOrders[symbol]++;
+    }
+
+    /***
+     * Removes the order from the book it rests in.
+     *
+     * @return {@code false} if the order was not resting in the book.
+     */
+    boolean remove(Order order) {
+        int symbol = order.symbol();
+        if (order.status() != Status.OPEN || symbol >= openOrders.length) {
+            return false;
+        }
+        TreeMap<Double, ArrayDeque<Order>> book = booksOf(order)[symbol];
+        ArrayDeque<Order> level = book == null ? null : book.get(order.bookPrice());
+        if (level == null || !level.remove(order)) {
+            return false;
+        }
+        if (level.isEmpty()) {
+            book.remove(order.bookPrice());
+        }
+        openOrders[symbol]--;
+        return true;
+    }
+
+    /***
+     * Takes the buy stop with the lowest stop price if the high reached it, otherwise returns
+     * {@code null}.
+     */
+    Order pollBuyStop(int symbol, double high) {
+        TreeMap<Double, ArrayDeque<Order>> book = buyStops[symbol];
+        return book != null && !book.isEmpty() && book.firstKey() <= high
+                ? poll(symbol, book, book.firstEntry())
+                : null;
+    }
+
+    /***
+     * Takes the sell stop with the highest stop price if the low reached it, otherwise returns
+     * {@code null}.
+     */
+    Order pollSellStop(int symbol, double low) {
+        TreeMap<Double, ArrayDeque<Order>> book = sellStops[symbol];
+        return book != null && !book.isEmpty() && book.lastKey() >= low
+                ? poll(symbol, book, book.lastEntry())
+                : null;
+    }
+
+    /***
+     * Takes the buy limit with the highest limit price if the low reached it, otherwise returns
+     * {@code null}.
+     */
+    Order pollBuyLimit(int symbol, double low) {
+        TreeMap<Double, ArrayDeque<Order>> book = buyLimits[symbol];
+        return book != null && !book.isEmpty() && book.lastKey() >= low
+                ? poll(symbol, book, book.lastEntry())
+                : null;
+    }
+
+    /***
+     * Takes the sell limit with the lowest limit price if the high reached it, otherwise returns
+     * {@code null}.
+     */
+    Order pollSellLimit(int symbol, double high) {
+        TreeMap<Double, ArrayDeque<Order>> book = sellLimits[symbol];
+        return book != null && !book.isEmpty() && book.firstKey() <= high
+                ? poll(symbol, book, book.firstEntry())
+                : null;
+    }
+
+    private Order poll(int symbol, TreeMap<Double, ArrayDeque<Order>> book,
+            Map.Entry<Double, ArrayDeque<Order>> level) {
+        Order order = level.getValue().pollFirst();
+        if (level.getValue().isEmpty()) {
+            book.remove(level.getKey());
+        }
+        openOrders[symbol]--;
+        return order;
+    }
+
+    private TreeMap<Double, ArrayDeque<Order>>[] booksOf(Order order) {
+        if (order.restsWithLimits()) {
+            return order.isBuy() ? buyLimits : sellLimits;
+        }
+        return order.isBuy() ? buyStops : sellStops;
+    }
+
+}
@@ -0,0 +1,198 @@
+package com.backt4j.core;
+
+import java.util.Arrays;
+
+/***
+ * <p>
+ * The open lots of every stock held at a {@link StockExchange}, indexed by symbol id.
+ * </p>
+ *
+ * <p>
+ * The lots of a stock form a FIFO queue: new lots are added after the newest one, while closing
+ * trades consume the oldest lot first. Each queue is a ring buffer over three primitive arrays
+ * (amount, price and time stamp), so neither adding nor consuming a lot allocates once the buffer
+ * is large enough, and a partially consumed lot is updated in place. Lots are addressed by their
+ * index from the oldest ({@code 0}) to the newest ({@code lots(symbol) - 1}).
+ * </p>
+ *
+ * <p>
+ * Next to the lots the book keeps the net amount and the cost basis (the sum of amount times price
+ * over the open lots) of every stock.
+ * </p>
+ */
+public final class PositionBook {
+
+    private static final int INITIAL_LOTS = 4;
+
+    private int[][] amounts;
+    private double[][] prices;
+    private long[][] timeStamps;
+    /***
+     * The index of the oldest lot in the ring buffer and the amount of lots of every stock.
+     */
+    private int[] heads;
+    private int[] sizes;
+
+    private int[] netAmounts;
+    private double[] costs;
+    private boolean[] traded;
+
+    PositionBook() {
+        amounts = new int[0][];
+        prices = new double[0][];
+        timeStamps = new long[0][];
+        heads = new int[0];
+        sizes = new int[0];
+        netAmounts = new int[0];
+        costs = new double[0];
+        traded = new boolean[0];
+    }
+
+    /***
+     * Returns the amount of symbol ids the book has room for. Stocks with a larger id were never
+     * traded.
+     */
+    public int capacity() {
+        return sizes.length;
+    }
+
+    void ensureCapacity(int symbols) {
+        if (symbols <= sizes.length) {
+            return;
+        }
+        int capacity = Math.max(symbols, sizes.length * 2);
+        amounts = Arrays.copyOf(amounts, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        timeStamps = Arrays.copyOf(timeStamps, capacity);
+        heads = Arrays.copyOf(heads, capacity);
+        sizes = Arrays.copyOf(sizes, capacity);
+        netAmounts = Arrays.copyOf(netAmounts, capacity);
+        costs = Arrays.copyOf(costs, capacity);
+        traded = Arrays.copyOf(traded, capacity);
+    }
+
+    /***
+     * Returns {@code true} if the stock had a position at some point.
+     */
+    public boolean wasTraded(int symbol) {
+        return symbol >= 0 && symbol < traded.length && traded[symbol];
+    }
+
+    /***
+     * Returns the amount of open lots of the stock.
+     */
+    public int lots(int symbol) {
+        return symbol >= 0 && symbol < sizes.length ? sizes[symbol] : 0;
+    }
+
+    /***
+     * Returns the amount of shares held of the stock, negative for a short position.
+     */
+    public int netAmount(int symbol) {
+        return symbol >= 0 && symbol < netAmounts.length ? netAmounts[symbol] : 0;
+    }
+
+    /***
+     * Returns the sum of amount times price over the open lots of the stock.
+     */
+    public double cost(int symbol) {
+        return symbol >= 0 && symbol < costs.length ? costs[symbol] : 0.0;
+    }
+
+    public int amount(int symbol, int lot) {
+        return amounts[symbol][slot(symbol, lot)];
+    }
+
+    public double price(int symbol, int lot) {
+        return prices[symbol][slot(symbol, lot)];
+    }
+
+    public long timeStamp(int symbol, int lot) {
+        return timeStamps[symbol][slot(symbol, lot)];
+    }
+
+    private int slot(int symbol, int lot) {
+        if (lot < 0 || lot >= lots(symbol)) {
+            throw new IndexOutOfBoundsException(
+                    "Lot " + lot + " is out of bounds for " + lots(symbol) + " lots");
+        }
+        return (heads[symbol] + lot) & (amounts[symbol].length - 1);
+    }
+
+    /***
+     * Adds a lot after the newest lot of the stock.
+     */
+    void add(int symbol, int amount, double price, long timeStamp) {
+        if (amounts[symbol] == null) {
+            amounts[symbol] = new int[INITIAL_LOTS];
+            prices[symbol] = new double[INITIAL_LOTS];
+            timeStamps[symbol] = new long[INITIAL_LOTS];
+        } else if (sizes[symbol] == amounts[symbol].length) {
+            grow(symbol);
+        }
+        // The capacity is a power of two, so the slot wraps around with a mask.
+        int slot = (heads[symbol] + sizes[symbol]) & (amounts[symbol].length - 1);
+        amounts[symbol][slot] = amount;
+        prices[symbol][slot] = price;
+        timeStamps[symbol][slot] = timeStamp;
+        sizes[symbol]++;
+        netAmounts[symbol] += amount;
+        costs[symbol] += amount * price;
+        traded[symbol] = true;
+    }
+
+    /***
+     * Doubles the ring buffer of the stock, moving the oldest lot to index {@code 0}.
+     */
+    private void grow(int symbol) {
+        int size = sizes[symbol];
+        int[] newAmounts = new int[size * 2];
+        double[] newPrices = new double[size * 2];
+        long[] newTimeStamps = new long[size * 2];
+        for (int lot = 0; lot < size; lot++) {
+            int slot = slot(symbol, lot);
+            newAmounts[lot] = amounts[symbol][slot];
+            newPrices[lot] = prices[symbol][slot];
+            newTimeStamps[lot] = timeStamps[symbol][slot];
+        }
+        amounts[symbol] = newAmounts;
+        prices[symbol] = newPrices;
+        timeStamps[symbol] = newTimeStamps;
+        heads[symbol] = 0;
+    }
+
+    /***
+     * Removes the oldest lot of the stock.
+     */
+    void removeOldest(int symbol) {
+        int slot = slot(symbol, 0);
+        netAmounts[symbol] -= amounts[symbol][slot];
+        costs[symbol] -= amounts[symbol][slot] * prices[symbol][slot];
+        heads[symbol] = (slot + 1) & (amounts[symbol].length - 1);
+        sizes[symbol]--;
+        settle(symbol);
+    }
+
+    /***
+     * Sets the amount of the oldest lot of the stock after it was partially consumed.
+     */
+    void reduceOldest(int symbol, int amountLeft) {
+        int slot = slot(symbol, 0);
+        int consumed = amounts[symbol][slot] - amountLeft;
+        netAmounts[symbol] -= consumed;
+        costs[symbol] -= consumed * prices[symbol][slot];
+        amounts[symbol][slot] = amountLeft;
+        settle(symbol);
+    }
+
+    /***
+     * Resets the cost basis to an exact zero once the position is closed, so rounding errors of
+     * the closed lots don't linger.
+     */
+    private void settle(int symbol) {
+        if (netAmounts[symbol] == 0) {
+            costs[symbol] = 0.0;
+        }
+    }
+
+}
@@ -9,9 +9,10 @@ import java.util.List;
  * via the {@link Backtest} class.
  * </p>
  * <p>
- * There is not Sharpe Ratio implemented because it can easily be calculated given all other
- * paramenters and it would require a fixed definition of what the Riskfree rate is which is as of
- * today 2025-10-02 not clearly given by the US Treasuries.
+ * The Sharpe and Sortino Ratio are calculated with a Riskfree rate of {@code 0}, as it would
+ * require a fixed definition of what the Riskfree rate is which is as of today 2025-10-02 not
+ * clearly given by the US Treasuries. The risk related indicators are filled in from the
+ * {@link RiskMetrics} of the {@link Exchange}, see there for their definitions.
  * </p>
  * <p>
  * All the indicators should be recorded by the {@link Exchange} class.
@@ -23,6 +24,10 @@ public class Result {
     private double relPerformance;
     private double volatility;
     private double maxDrawdown;
+    private long maxDrawdownDuration;
+    private double sharpeRatio;
+    private double sortinoRatio;
+    private double exposure;
     private List<Double> performanceSeries;
 
     /***
@@ -101,6 +106,41 @@ public class Result {
         this.maxDrawdown = biggestLoss;
     }
 
+    /***
+     * Returns the longest time the equity stayed below a peak, in the units of the time stamps.
+     */
+    public long getMaxDrawdownDuration() {
+        return maxDrawdownDuration;
+    }
+
+    public void setMaxDrawdownDuration(long maxDrawdownDuration) {
+        this.maxDrawdownDuration = maxDrawdownDuration;
+    }
+
+    public Double getSharpeRatio() {
+        return sharpeRatio;
+    }
+
+    public void setSharpeRatio(Double sharpeRatio) {
+        this.sharpeRatio = sharpeRatio;
+    }
+
+    public Double getSortinoRatio() {
+        return sortinoRatio;
+    }
+
+    public void setSortinoRatio(Double sortinoRatio) {
+        this.sortinoRatio = sortinoRatio;
+    }
+
+    public Double getExposure() {
+        return exposure;
+    }
+
+    public void setExposure(Double exposure) {
+        this.exposure = exposure;
+    }
+
     public List<Double> getPerformanceSeries() {
         return performanceSeries;
     }
@@ -0,0 +1,214 @@
+package com.backt4j.core;
+
+/***
+ * <p>
+ * Risk and performance indicators of an equity curve, updated with every point in time in
+ * {@code O(1)} from a handful of primitive fields, so they are available at any point of a run
+ * without keeping the curve.
+ * </p>
+ *
+ * <p>
+ * The returns are the relative changes of the equity from one point in time to the next. Their
+ * mean and variance are kept with Welford's online algorithm, which stays accurate where summing
+ * up squares would cancel out. The volatility is the population standard deviation of the
+ * returns, the Sharpe ratio their mean over their volatility and the Sortino ratio their mean over
+ * the downside deviation, i.e. the root mean square of the negative returns. Both ratios assume a
+ * risk free rate of {@code 0} and are not annualized, as the length of a point in time depends on
+ * the data.
+ * </p>
+ *
+ * <p>
+ * The drawdown is measured from the highest equity so far, the maximum drawdown is the largest
+ * relative drop from a peak to a later trough. Its duration is the longest time the equity stayed
+ * below a peak, both in points in time and in the units of the time stamps. The exposure is the
+ * mean of the gross value of the open positions relative to the equity.
+ * </p>
+ */
+public final class RiskMetrics {
+
+    private long count;
+    private double equity;
+
+    private double meanReturn;
+    private double squaredDeviations;
+    private double downsideSquares;
+
+    private double peakEquity;
+    private long peakTimeStamp;
+    private long pointsBelowPeak;
+    private double maxDrawdown;
+    private long maxDrawdownPoints;
+    private long maxDrawdownDuration;
+
+    private double exposureSum;
+    private long pointsInMarket;
+
+    public RiskMetrics() {
+        reset(0.0);
+    }
+
+    /***
+     * Starts a new equity curve at the given equity.
+     */
+    public void reset(double initialEquity) {
+        count = 0;
+        equity = initialEquity;
+        meanReturn = 0.0;
+        squaredDeviations = 0.0;
+        downsideSquares = 0.0;
+        peakEquity = initialEquity;
+        peakTimeStamp = Long.MIN_VALUE;
+        pointsBelowPeak = 0;
+        maxDrawdown = 0.0;
+        maxDrawdownPoints = 0;
+        maxDrawdownDuration = 0;
+        exposureSum = 0.0;
+        pointsInMarket = 0;
+    }
+
+    /***
+     * Adds the next point in time of the equity curve.
+     *
+     * @param timeStamp The time stamp of the point in time.
+     * @param newEquity The equity, i.e. cash plus the value of the open positions.
+     * @param grossExposure The sum of the absolute values of the open positions.
+     */
+    public void update(long timeStamp, double newEquity, double grossExposure) {
+        double periodReturn = equity != 0.0 ? newEquity / equity - 1.0 : 0.0;
+        count++;
+        double deviation = periodReturn - meanReturn;
+        meanReturn += deviation / count;
+        squaredDeviations += deviation * (periodReturn - meanReturn);
+        if (periodReturn < 0.0) {
+            downsideSquares += periodReturn * periodReturn;
+        }
+        equity = newEquity;
+
+        if (peakTimeStamp == Long.MIN_VALUE) {
+            // The curve starts at its first point in time.
+            peakTimeStamp = timeStamp;
+        }
+        if (newEquity >= peakEquity) {
+            peakEquity = newEquity;
+            peakTimeStamp = timeStamp;
+            pointsBelowPeak = 0;
+        } else {
+            pointsBelowPeak++;
+            maxDrawdown = Math.max(maxDrawdown, getDrawdown());
+            maxDrawdownPoints = Math.max(maxDrawdownPoints, pointsBelowPeak);
+            maxDrawdownDuration = Math.max(maxDrawdownDuration, timeStamp - peakTimeStamp);
+        }
+
+        if (grossExposure != 0.0) {
+            pointsInMarket++;
+            if (newEquity != 0.0) {
+                exposureSum += grossExposure / newEquity;
+            }
+        }
+    }
+
+    /***
+     * Returns the amount of points in time added so far.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public double getEquity() {
+        return equity;
+    }
+
+    public double getPeakEquity() {
+        return peakEquity;
+    }
+
+    public double getMeanReturn() {
+        return meanReturn;
+    }
+
+    public double getVariance() {
+        return count > 0 ? squaredDeviations / count : 0.0;
+    }
+
+    public double getVolatility() {
+        return Math.sqrt(getVariance());
+    }
+
+    public double getDownsideDeviation() {
+        return count > 0 ? Math.sqrt(downsideSquares / count) : 0.0;
+    }
+
+    /***
+     * Returns the mean return over the volatility, or {@code 0} while the volatility is
+     * {@code 0}.
+     */
+    public double getSharpeRatio() {
+        double volatility = getVolatility();
+        return volatility > 0.0 ? meanReturn / volatility : 0.0;
+    }
+
+    /***
+     * Returns the mean return over the downside deviation, or {@code 0} as long as there was no
+     * negative return.
+     */
+    public double getSortinoRatio() {
+        double downsideDeviation = getDownsideDeviation();
+        return downsideDeviation > 0.0 ? meanReturn / downsideDeviation : 0.0;
+    }
+
+    /***
+     * Returns the current relative drop of the equity from its peak.
+     */
+    public double getDrawdown() {
+        return peakEquity > 0.0 ? (peakEquity - equity) / peakEquity : 0.0;
+    }
+
+    /***
+     * Returns the largest relative drop of the equity from a peak, e.g. {@code 0.2} for a drop of
+     * 20 percent.
+     */
+    public double getMaxDrawdown() {
+        return maxDrawdown;
+    }
+
+    /***
+     * Returns the largest amount of consecutive points in time the equity stayed below a peak.
+     */
+    public long getMaxDrawdownPoints() {
+        return maxDrawdownPoints;
+    }
+
+    /***
+     * Returns the longest time the equity stayed below a peak, in the units of the time stamps.
+     */
+    public long getMaxDrawdownDuration() {
+        return maxDrawdownDuration;
+    }
+
+    /***
+     * Returns the mean gross exposure relative to the equity over all points in time.
+     */
+    public double getExposure() {
+        return count > 0 ? exposureSum / count : 0.0;
+    }
+
+    /***
+     * Returns the share of the points in time with open positions.
+     */
+    public double getTimeInMarket() {
+        return count > 0 ? (double) pointsInMarket / count : 0.0;
+    }
+
+    /***
+     * Copies the indicators to the {@link Result}.
+     */
+    public void writeTo(Result result) {
+        result.setVolatility(getVolatility());
+        result.setMaxDrawdown(getMaxDrawdown());
+        result.setMaxDrawdownDuration(getMaxDrawdownDuration());
+        result.setSharpeRatio(getSharpeRatio());
+        result.setSortinoRatio(getSortinoRatio());
+        result.setExposure(getExposure());
+    }
+
+}
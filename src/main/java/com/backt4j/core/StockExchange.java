@@ -1,14 +1,18 @@
 package com.backt4j.core;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.RandomAccess;
 
 import java.util.ArrayDeque;
 import java.lang.Math;
 
 import com.backt4j.data.PriceDataPoint;
 import com.backt4j.data.Data;
+import com.backt4j.data.SymbolTable;
 
 /***
  * <p>
@@ -22,17 +26,42 @@ import com.backt4j.data.Data;
 public class StockExchange extends Exchange {
 
     /***
-     * The Entries in {@code openPositions} are Deques containing Transaction records that contain
-     * each the amount and the price of a trade. By definition of a Queue the Transactions are
-     * sorted by their arrival. As it is currently assumed that trades are always fullfilled with
-     * the desired price, it can be guaranteed that each Transaction was a result from one trade.
+     * The open lots of every stock, see {@link PositionBook}. As it is currently assumed that
+     * trades are always fullfilled with the desired price, it can be guaranteed that each lot was a
+     * result from one trade.
      **/
-    private HashMap<String, ArrayDeque<Transaction>> openPositions;
+    private final PositionBook book;
+    /***
+     * The resting limit, stop and stop-limit orders of every stock, matched against the high and
+     * low of every new bar, see {@link OrderBook}.
+     */
+    private final OrderBook orders;
+    /***
+     * <p>
+     * The unrealised profit of every stock at its most recent price, indexed by symbol id, and
+     * {@code portfolioValue} the sum of all {@code positionValues}. They are computed from the net
+     * amount and the cost basis kept by the {@link PositionBook}, so the valuation is independent of
+     * the amount of lots.
+     * </p>
+     * <p>
+     * A stock is only valued again when its price or its position changes, so a call of
+     * {@code next} costs {@code O(1)} per asset with a new bar.
+     * </p>
+     */
+    private double[] positionValues;
+    private double portfolioValue;
+    private int valuedPositions;
     /***
-     * This {@link HashMap} stores, for each stock a position was created at some point, the total
-     * amount of shares with the respective sign.
+     * The absolute market value of every stock and {@code grossExposure} their sum, kept like
+     * {@code positionValues}.
      */
-    private HashMap<String, Integer> openPositionAmounts;
+    private double[] positionExposures;
+    private double grossExposure;
+    private int exposedPositions;
+    /***
+     * The sum of the profits of all closed trades.
+     */
+    private double realizedProfit;
     /***
      * The {@code initialBudget} specifies the initial amount allocated to the account at the
      * Exchange.
@@ -66,11 +95,18 @@ public class StockExchange extends Exchange {
     };
 
     private List<Transaction> transactions;
+    /***
+     * The file the transactions are appended to instead of {@code transactions}, or {@code null}
+     * if they are kept on the heap. See {@code setJournal}.
+     */
+    private TradeJournal journal;
 
     public StockExchange(double budget, Data newData) {
         super(newData);
-        openPositions = new HashMap<>();
-        openPositionAmounts = new HashMap<>();
+        book = new PositionBook();
+        orders = new OrderBook();
+        positionValues = new double[0];
+        positionExposures = new double[0];
         results = new Result();
         initialBudget = budget;
         remainingBudget = budget;
@@ -79,8 +115,10 @@ public class StockExchange extends Exchange {
 
     public StockExchange(int budget, Data newData) {
         super(newData);
-        openPositions = new HashMap<>();
-        openPositionAmounts = new HashMap<>();
+        book = new PositionBook();
+        orders = new OrderBook();
+        positionValues = new double[0];
+        positionExposures = new double[0];
         results = new Result();
         initialBudget = (double) budget;
         remainingBudget = (double) budget;
@@ -111,93 +149,85 @@ public class StockExchange extends Exchange {
      *         not enough budget to make it.
      */
     public int marketOrder(String ticker, int amount, double price, long timeStamp) {
+        return marketOrder(symbolOf(ticker), amount, price, timeStamp);
+    }
+
+    /***
+     * The counterpart of {@code marketOrder(String, int, double, long)} taking the symbol id of
+     * the stock, see {@link #getSymbols()}.
+     */
+    public int marketOrder(int symbol, int amount, double price, long timeStamp) {
+        int status = executeOrder(symbol, amount, price, timeStamp);
+        if (status == 0) {
+            revalue(symbol);
+        }
+        return status;
+    }
+
+    private int executeOrder(int symbol, int amount, double price, long timeStamp) {
         // Check if there is enough budget for the transaction.
         if (amount * price * -1 + remainingBudget < 0) {
             return 1;
         }
 
         // Transaction is legal because there is enough budget.
-        Transaction orderTransaction = new Transaction(ticker, amount, price, timeStamp);
-        transactions.add(orderTransaction);
+        if (journal != null) {
+            journal.append(symbol, amount, price, timeStamp);
+        } else {
+            transactions.add(
+                    new Transaction(getSymbols().symbol(symbol), amount, price, timeStamp));
+        }
+        ensureCapacity(symbol);
 
         // In order to handle the next cases correctly we need to determine the signs of
         // Potfolio and order.
         int orderSign = Integer.signum(amount);
-        boolean noPosition =
-                openPositions.get(ticker) == null || openPositions.get(ticker).size() == 0;
         // Handle the case where we have no positions for the ticker at all.
-        if (noPosition) {
-            assert openPositionAmounts.get(ticker) == null || openPositionAmounts.get(ticker) == 0;
-            openPositionAmounts.put(ticker, amount);
+        if (book.lots(symbol) == 0) {
+            assert book.netAmount(symbol) == 0;
             remainingBudget -= (amount * price);
-            if (openPositions.get(ticker) == null) {
-                openPositions.put(ticker, new ArrayDeque<>());
-                openPositions.get(ticker).addFirst(orderTransaction);
-            } else {
-                openPositions.get(ticker).addFirst(orderTransaction);
-            }
+            book.add(symbol, amount, price, timeStamp);
             return 0;
         }
-        int portfolioSign = Integer.signum(openPositionAmounts.get(ticker));
+        int portfolioSign = Integer.signum(book.netAmount(symbol));
 
         while (amount != 0) {
             // First we handle the case where a long or short positions is just increased.
             if (orderSign == portfolioSign) {
-                // As there is a position, the position volume must be adjusted.
-                int currentOpenPositionAmount = openPositionAmounts.get(ticker);
-                currentOpenPositionAmount += amount;
-                openPositionAmounts.put(ticker, currentOpenPositionAmount);
                 // Next the budget has to be adjusted.
                 remainingBudget -= (amount * price);
-                openPositions.get(ticker).addFirst(orderTransaction);
+                book.add(symbol, amount, price, timeStamp);
                 amount = 0;
                 // Secondly we handle sell of a long position.
             } else if (orderSign < portfolioSign) {
                 // A sell leads to neutralization of older positions.
-                Transaction firstExecutedTransaction = openPositions.get(ticker).peekLast();
-                // We therefore check if the firstExecutedTransaction will be consumed entirely.
-                int amountLeft = firstExecutedTransaction.amount() > Math.abs(amount)
-                        ? firstExecutedTransaction.amount() + amount
-                        : 0;
+                int firstAmount = book.amount(symbol, 0);
+                double firstPrice = book.price(symbol, 0);
+                // We therefore check if the oldest lot will be consumed entirely.
+                int amountLeft = firstAmount > Math.abs(amount) ? firstAmount + amount : 0;
 
                 if (amountLeft == 0) {
-                    // Adjust the amount by the amount of the firstExecutedTransaction.
-                    amount += firstExecutedTransaction.amount();
-
-                    // As there is a position, the position volume must be adjusted.
-                    int currentOpenPositionAmount = openPositionAmounts.get(ticker);
-                    currentOpenPositionAmount -= firstExecutedTransaction.amount();
-                    openPositionAmounts.put(ticker, currentOpenPositionAmount);
+                    // Adjust the amount by the amount of the oldest lot.
+                    amount += firstAmount;
 
                     // Next the budget has to be adjusted.
                     // Closing of a position always leads to adjustment by tradePerformance.
-                    Double tradePerformance = firstExecutedTransaction.amount()
-                            * (price - firstExecutedTransaction.price());
+                    double tradePerformance = firstAmount * (price - firstPrice);
                     remainingBudget += tradePerformance;
 
-                    // If the old trade was consumed entirely by the order we can remove it.
-                    openPositions.get(ticker).removeLast();
+                    // If the oldest lot was consumed entirely by the order we can remove it.
+                    book.removeOldest(symbol);
 
                     // As a position was closed we have to update the results Object.
                     updateResults(tradePerformance);
                 } else {
-                    // As there is a position, the position volume must be adjusted.
-                    int currentOpenPositionAmount = openPositionAmounts.get(ticker);
-                    currentOpenPositionAmount += amount;
-                    openPositionAmounts.put(ticker, currentOpenPositionAmount);
-
                     // Next the budget has to be adjusted.
                     // Closing of a position always leads to adjustment by tradePerformance.
-                    Double tradePerformance =
-                            Math.abs(amount) * (price - firstExecutedTransaction.price());
+                    double tradePerformance = Math.abs(amount) * (price - firstPrice);
                     remainingBudget += tradePerformance;
 
-                    // The old trade was NOT consumed entirely by the order so we have to update it.
-                    Transaction updatedTransaction = new Transaction(
-                            firstExecutedTransaction.ticker(), amountLeft,
-                            firstExecutedTransaction.price(), firstExecutedTransaction.timeStamp());
-                    openPositions.get(ticker).removeLast();
-                    openPositions.get(ticker).addLast(updatedTransaction);
+                    // The oldest lot was NOT consumed entirely by the order so we update it.
+                    book.reduceOldest(symbol, amountLeft);
 
                     // As a position was closed we have to update the results Object.
                     updateResults(tradePerformance);
@@ -208,69 +238,67 @@ public class StockExchange extends Exchange {
                 // Lastly we handle buy of a short position.
             } else {
                 // A buy leads to neutralization of older positions.
-                Transaction firstExecutedTransaction = openPositions.get(ticker).peekLast();
-                // We therefore check if the firstExecutedTransaction will be consumed entirely.
-                int amountLeft = Math.abs(firstExecutedTransaction.amount()) > amount
-                        ? firstExecutedTransaction.amount() + amount
-                        : 0;
+                int firstAmount = book.amount(symbol, 0);
+                double firstPrice = book.price(symbol, 0);
+                // We therefore check if the oldest lot will be consumed entirely.
+                int amountLeft = Math.abs(firstAmount) > amount ? firstAmount + amount : 0;
 
                 if (amountLeft == 0) {
-                    // Adjust the amount by the amount of the firstExecutedTransaction.
-                    amount += firstExecutedTransaction.amount();
-
-                    // As there is a position, the position volume must be adjusted.
-                    int currentOpenPositionAmount = openPositionAmounts.get(ticker);
-                    currentOpenPositionAmount -= firstExecutedTransaction.amount();
-                    openPositionAmounts.put(ticker, currentOpenPositionAmount);
+                    // Adjust the amount by the amount of the oldest lot.
+                    amount += firstAmount;
 
                     // Next the budget has to be adjusted.
                     // Closing of a position always leads to adjustment by tradePerformance.
-                    Double tradePerformance = Math.abs(firstExecutedTransaction.amount())
-                            * (firstExecutedTransaction.price() - price);
+                    double tradePerformance = Math.abs(firstAmount) * (firstPrice - price);
                     remainingBudget += tradePerformance;
 
-                    // If the old trade was consumed entirely by the order we can remove it.
-                    openPositions.get(ticker).removeLast();
+                    // If the oldest lot was consumed entirely by the order we can remove it.
+                    book.removeOldest(symbol);
 
                     // As a position was closed we have to update the results Object.
                     updateResults(tradePerformance);
                 } else {
-                    // As there is a position, the position volume must be adjusted.
-                    int currentOpenPositionAmount = openPositionAmounts.get(ticker);
-                    currentOpenPositionAmount += amount;
-                    openPositionAmounts.put(ticker, currentOpenPositionAmount);
-
                     // Next the budget has to be adjusted.
                     // Closing of a position always leads to adjustment by tradePerformance.
-                    Double tradePerformance =
-                            amount * (firstExecutedTransaction.price() - price);
+                    double tradePerformance = amount * (firstPrice - price);
                     remainingBudget += tradePerformance;
 
-                    // The old trade was NOT consumed entirely by the order so we have to update it.
-                    Transaction updatedTransaction = new Transaction(
-                            firstExecutedTransaction.ticker(), amountLeft,
-                            firstExecutedTransaction.price(), firstExecutedTransaction.timeStamp());
-                    openPositions.get(ticker).removeLast();
-                    openPositions.get(ticker).addLast(updatedTransaction);
+                    // The oldest lot was NOT consumed entirely by the order so we update it.
+                    book.reduceOldest(symbol, amountLeft);
 
                     // As a position was closed we have to update the results Object.
                     updateResults(tradePerformance);
 
                     // The order partially consumed the position and is zero now.
                     amount = 0;
-
                 }
             }
         }
         return 0;
     }
 
-    private void updateResults(Double absPerformance) {
+    /***
+     * Grows the {@link PositionBook} and the arrays indexed by symbol id if the stock is traded
+     * for the first time.
+     */
+    private void ensureCapacity(int symbol) {
+        if (symbol >= positionValues.length) {
+            int capacity = Math.max(getSymbols().size(), positionValues.length * 2);
+            book.ensureCapacity(capacity);
+            orders.ensureCapacity(capacity);
+            positionValues = Arrays.copyOf(positionValues, capacity);
+            positionExposures = Arrays.copyOf(positionExposures, capacity);
+        }
+    }
+
+    private void updateResults(double absPerformance) {
+        realizedProfit += absPerformance;
         results.setAbsPerformance(results.getAbsPerformance() + absPerformance);
         results.setRelPerformance(results.getAbsPerformance() / initialBudget);
-        Double maxDrawDownUpdate = absPerformance < results.getMaxDrawdown() ? absPerformance
-                : results.getMaxDrawdown();
-        results.setMaxDrawdown(maxDrawDownUpdate);
+        if (journal != null) {
+            // The series would grow with every closing fill, which the journal keeps off the heap.
+            return;
+        }
         List<Double> newPerformanceSeries = results.getPerformanceSeries();
         newPerformanceSeries.add(results.getRelPerformance());
         results.setPerformanceSeries(newPerformanceSeries);
@@ -290,21 +318,278 @@ public class StockExchange extends Exchange {
      * @param ticker the ticker specifies the stock being traded.
      */
     public void marketClearPosition(String ticker) {
-        ArrayDeque<Transaction> allOrders = openPositions.get(ticker);
-        if (allOrders == null) {
+        int symbol = getSymbols().idOf(ticker);
+        if (symbol != SymbolTable.UNKNOWN) {
+            marketClearPosition(symbol);
+        }
+    }
+
+    /***
+     * The counterpart of {@code marketClearPosition(String)} taking the symbol id of the stock.
+     */
+    public void marketClearPosition(int symbol) {
+        while (book.lots(symbol) > 0) {
+            // Selling the amount of the newest lot consumes the lots from the oldest on.
+            PriceDataPoint currentDataPoint = (PriceDataPoint) getCurrentPrice(symbol);
+            int status = marketOrder(symbol, book.amount(symbol, book.lots(symbol) - 1) * -1,
+                    currentDataPoint.open(), currentDataPoint.window_start().getTime());
+            if (status != 0) {
+                return;
+            }
+        }
+    }
+
+    /***
+     * <p>
+     * Places a limit order, which rests in the {@link OrderBook} until a bar reaches its limit
+     * price. A buy is filled once the low of a bar is at or below the limit price, a sell once the
+     * high is at or above it.
+     * </p>
+     * <p>
+     * The order is filled at the limit price, or at the open price if the bar opens beyond it.
+     * Orders are matched against the bars after the one they were placed at, and filled through
+     * {@code marketOrder}, so a fill is recorded as a {@link Transaction} and takes part in the
+     * position accounting. An order the budget doesn't allow at the time of the fill is rejected.
+     * </p>
+     * 
+     * @param ticker the ticker of the stock to trade.
+     * @param amount is either positive or negative whether the order buys or sells.
+     * @param limitPrice the worst price the order may be filled at.
+     * @param timeStamp the timestamp the order is placed at.
+     * @return The order, which tells its status and fill price once it was matched.
+     */
+    public OrderBook.Order limitOrder(String ticker, int amount, double limitPrice,
+            long timeStamp) {
+        return limitOrder(symbolOf(ticker), amount, limitPrice, timeStamp);
+    }
+
+    /***
+     * The counterpart of {@code limitOrder(String, int, double, long)} taking the symbol id of the
+     * stock.
+     */
+    public OrderBook.Order limitOrder(int symbol, int amount, double limitPrice, long timeStamp) {
+        checkPrice(limitPrice);
+        return placeOrder(new OrderBook.Order(symbol, checkAmount(amount), OrderBook.Type.LIMIT,
+                limitPrice, Double.NaN, timeStamp));
+    }
+
+    /***
+     * Places a stop order, which becomes a market order once a bar reaches its stop price: a buy
+     * stop once the high is at or above the stop price, a sell stop once the low is at or below
+     * it. The order is filled at the stop price, or at the open price if the bar opens beyond it.
+     * 
+     * @see #limitOrder(String, int, double, long)
+     */
+    public OrderBook.Order stopOrder(String ticker, int amount, double stopPrice, long timeStamp) {
+        return stopOrder(symbolOf(ticker), amount, stopPrice, timeStamp);
+    }
+
+    /***
+     * The counterpart of {@code stopOrder(String, int, double, long)} taking the symbol id of the
+     * stock.
+     */
+    public OrderBook.Order stopOrder(int symbol, int amount, double stopPrice, long timeStamp) {
+        checkPrice(stopPrice);
+        return placeOrder(new OrderBook.Order(symbol, checkAmount(amount), OrderBook.Type.STOP,
+                Double.NaN, stopPrice, timeStamp));
+    }
+
+    /***
+     * Places a stop-limit order, which becomes a limit order once a bar reaches its stop price. If
+     * the price the stop is reached at doesn't exceed the limit price, the order is filled at that
+     * price right away.
+     * 
+     * @see #stopOrder(String, int, double, long)
+     * @see #limitOrder(String, int, double, long)
+     */
+    public OrderBook.Order stopLimitOrder(String ticker, int amount, double stopPrice,
+            double limitPrice, long timeStamp) {
+        return stopLimitOrder(symbolOf(ticker), amount, stopPrice, limitPrice, timeStamp);
+    }
+
+    /***
+     * The counterpart of {@code stopLimitOrder(String, int, double, double, long)} taking the
+     * symbol id of the stock.
+     */
+    public OrderBook.Order stopLimitOrder(int symbol, int amount, double stopPrice,
+            double limitPrice, long timeStamp) {
+        checkPrice(stopPrice);
+        checkPrice(limitPrice);
+        return placeOrder(new OrderBook.Order(symbol, checkAmount(amount),
+                OrderBook.Type.STOP_LIMIT, limitPrice, stopPrice, timeStamp));
+    }
+
+    /***
+     * Removes an open order from the {@link OrderBook}.
+     * 
+     * @return {@code true} if the order was cancelled, {@code false} if it was not open anymore.
+     */
+    public boolean cancelOrder(OrderBook.Order order) {
+        if (!orders.remove(order)) {
+            return false;
+        }
+        order.close(OrderBook.Status.CANCELLED);
+        return true;
+    }
+
+    private OrderBook.Order placeOrder(OrderBook.Order order) {
+        ensureCapacity(order.symbol());
+        orders.add(order);
+        return order;
+    }
+
+    private static int checkAmount(int amount) {
+        if (amount == 0) {
+            throw new IllegalArgumentException("The amount of an order must not be 0.");
+        }
+        return amount;
+    }
+
+    private static void checkPrice(double price) {
+        if (!(price > 0) || Double.isInfinite(price)) {
+            throw new IllegalArgumentException(
+                    "The price of an order must be positive, not " + price);
+        }
+    }
+
+    /***
+     * <p>
+     * Fills the resting orders of the stock the new bar crosses. The stops are matched first, as a
+     * stop-limit order that is triggered may still be filled by the same bar.
+     * </p>
+     * <p>
+     * Each book is consumed from its best price on and the matching stops at the first order the
+     * bar doesn't reach, so orders that keep resting are not looked at.
+     * </p>
+     */
+    private void matchOrders(int symbol) {
+        double open = getCurrentOpen(symbol);
+        double high = getCurrentHigh(symbol);
+        double low = getCurrentLow(symbol);
+        if (Double.isNaN(open) || Double.isNaN(high) || Double.isNaN(low)) {
+            return;
+        }
+        long timeStamp = getCurrentTimeStamp();
+        OrderBook.Order order;
+        while ((order = orders.pollBuyStop(symbol, high)) != null) {
+            stopReached(order, Math.max(open, order.stopPrice()), timeStamp);
+        }
+        while ((order = orders.pollSellStop(symbol, low)) != null) {
+            stopReached(order, Math.min(open, order.stopPrice()), timeStamp);
+        }
+        while ((order = orders.pollBuyLimit(symbol, low)) != null) {
+            fill(order, Math.min(open, order.limitPrice()), timeStamp);
+        }
+        while ((order = orders.pollSellLimit(symbol, high)) != null) {
+            fill(order, Math.max(open, order.limitPrice()), timeStamp);
+        }
+    }
+
+    private void stopReached(OrderBook.Order order, double price, long timeStamp) {
+        if (order.type() == OrderBook.Type.STOP) {
+            fill(order, price, timeStamp);
             return;
         }
-        for (Transaction t : allOrders) {
-            PriceDataPoint currentDataPoint = (PriceDataPoint) currentPrices.get(ticker);
-            marketOrder(ticker, t.amount() * -1, currentDataPoint.open(), 
-                    currentDataPoint.window_start().getTime());
+        boolean withinLimit = order.isBuy() ? price <= order.limitPrice()
+                : price >= order.limitPrice();
+        if (withinLimit) {
+            fill(order, price, timeStamp);
+        } else {
+            // The bar opened beyond the limit, the limit order may still be filled later on.
+            order.trigger();
+            orders.add(order);
+        }
+    }
+
+    private void fill(OrderBook.Order order, double price, long timeStamp) {
+        if (marketOrder(order.symbol(), order.amount(), price, timeStamp) == 0) {
+            order.fill(price, timeStamp);
+        } else {
+            order.close(OrderBook.Status.REJECTED);
         }
     }
 
+    /***
+     * Returns the {@link OrderBook} holding the resting orders of every stock.
+     */
+    public OrderBook getOrderBook() {
+        return orders;
+    }
+
+    /***
+     * Returns the transactions made so far. With a {@link TradeJournal} set, the returned list is a
+     * read-only view over the journal that creates the {@link Transaction} records when they are
+     * read.
+     */
     public List<Transaction> getTransactions() {
         return transactions;
     }
 
+    /***
+     * <p>
+     * Appends all further transactions to the given {@link TradeJournal} instead of keeping them
+     * on the heap, which is meant for runs with more transactions than fit into memory. The
+     * transactions made so far are moved to the journal.
+     * </p>
+     * <p>
+     * The {@code StockExchange} doesn't close the journal, the caller does so once the results
+     * were read.
+     * </p>
+     * <p>
+     * From then on the performance series of the {@link Result} is no longer extended by every
+     * closed trade, so the heap doesn't grow with the amount of fills. The closed trades can be
+     * reconstructed from the journal instead.
+     * </p>
+     */
+    public void setJournal(TradeJournal journalArg) {
+        if (journal != null) {
+            throw new IllegalStateException("The transactions are already journaled to "
+                    + journal.getFile());
+        }
+        for (Transaction transaction : transactions) {
+            journalArg.append(symbolOf(transaction.ticker()), transaction.amount(),
+                    transaction.price(), transaction.timeStamp());
+        }
+        journalArg.setSymbols(getSymbols());
+        journal = journalArg;
+        transactions = new JournalTransactions();
+    }
+
+    /***
+     * Returns the {@link TradeJournal} of the transactions or {@code null} if they are kept on the
+     * heap.
+     */
+    public TradeJournal getJournal() {
+        return journal;
+    }
+
+    /***
+     * The view over the {@link TradeJournal} returned by {@code getTransactions}.
+     */
+    private final class JournalTransactions extends AbstractList<Transaction>
+            implements RandomAccess {
+
+        @Override
+        public Transaction get(int index) {
+            return new Transaction(getSymbols().symbol(journal.symbol(index)),
+                    journal.amount(index), journal.price(index), journal.timeStamp(index));
+        }
+
+        @Override
+        public int size() {
+            return Math.toIntExact(journal.size());
+        }
+
+    }
+
+    /***
+     * Returns the {@link PositionBook} holding the open lots of every stock. Reading it doesn't
+     * allocate, unlike {@code getOpenPositions}.
+     */
+    public PositionBook getPositionBook() {
+        return book;
+    }
+
     /***
      * <p>
      * Returns all current {@code openPositions}.
@@ -312,13 +597,40 @@ public class StockExchange extends Exchange {
      * 
      * <p>
      * The Entries in {@code openPositions} are Deques containing Transaction records that contain
-     * the volume and price of each trade. As it is currently assumed that trades are always
-     * fullfilled with the desired price, it can be guaranteed that each Transaction was a result
-     * from one trade.
+     * the volume and price of each trade, with the newest trade first. As it is currently assumed
+     * that trades are always fullfilled with the desired price, it can be guaranteed that each
+     * Transaction was a result from one trade.
+     * </p>
+     * <p>
+     * The returned {@link HashMap} is built from the {@link PositionBook} on every call and meant
+     * for display. It contains every stock that had a position at some point.
      * </p>
      **/
     public HashMap<String, ArrayDeque<Transaction>> getOpenPositions() {
-        return openPositions;
+        HashMap<String, ArrayDeque<Transaction>> positions = new HashMap<>();
+        for (int symbol = 0; symbol < book.capacity(); symbol++) {
+            if (book.wasTraded(symbol)) {
+                positions.put(getSymbols().symbol(symbol), getOpenPositions(symbol));
+            }
+        }
+        return positions;
+    }
+
+    /***
+     * Returns a copy of the open lots of the stock with the given symbol id, with the newest trade
+     * first, or {@code null} if the stock was never traded.
+     */
+    public ArrayDeque<Transaction> getOpenPositions(int symbol) {
+        if (!book.wasTraded(symbol)) {
+            return null;
+        }
+        String ticker = getSymbols().symbol(symbol);
+        ArrayDeque<Transaction> positions = new ArrayDeque<>(book.lots(symbol));
+        for (int lot = 0; lot < book.lots(symbol); lot++) {
+            positions.addFirst(new Transaction(ticker, book.amount(symbol, lot),
+                    book.price(symbol, lot), book.timeStamp(symbol, lot)));
+        }
+        return positions;
     }
 
     /***
@@ -326,9 +638,27 @@ public class StockExchange extends Exchange {
      * Returns all current {@code openPositionAmounts}, which is essentially a HashMap with the
      * tickers as keys and the amount as value.
      * </p>
+     * <p>
+     * The returned {@link HashMap} is built on every call and meant for display. Strategies should
+     * use {@code getOpenPositionAmount(int)} instead.
+     * </p>
      */
     public HashMap<String, Integer> getOpenPositionAmounts() {
-        return openPositionAmounts;
+        HashMap<String, Integer> amounts = new HashMap<>();
+        for (int symbol = 0; symbol < book.capacity(); symbol++) {
+            if (book.wasTraded(symbol)) {
+                amounts.put(getSymbols().symbol(symbol), book.netAmount(symbol));
+            }
+        }
+        return amounts;
+    }
+
+    /***
+     * Returns the amount of shares held of the stock with the given symbol id, negative for a
+     * short position.
+     */
+    public int getOpenPositionAmount(int symbol) {
+        return book.netAmount(symbol);
     }
 
     /***
@@ -354,33 +684,79 @@ public class StockExchange extends Exchange {
     }
 
     /***
-     * Calculates the current portfolio value based on the the latest {@link PriceDataPoint} and the
-     * {@code openPositions}, by multiplying the respective amounts with the prices of the assets.
+     * Returns the current portfolio value based on the the latest {@link PriceDataPoint} and the
+     * open lots, by multiplying the respective amounts with the prices of the assets.
      */
     @Override
     public Double getCurrentPortfolioValue() {
-        Double currentPortfolioValue = 0.0;
-        if (!openPositions.isEmpty()) {
-            for (String ticker : openPositions.keySet()) {
-                if (currentPrices.get(ticker) == null) {
-                    continue;
-                }
-                Double currentPrice = ((PriceDataPoint) currentPrices.get(ticker)).open();
-                ArrayDeque<Transaction> openTransactions = openPositions.get(ticker);
-                if (openTransactions == null) {
-                    continue;
-                }
-                if (openTransactions.isEmpty()) {
-                    continue;
-                }
-                for (Transaction t : openTransactions) {
-                    Integer volume = t.amount();
-                    Double buyIn = t.price();
-                    currentPortfolioValue += volume * (currentPrice - buyIn);
-                }
-            }
+        return portfolioValue();
+    }
+
+    @Override
+    protected double portfolioValue() {
+        return portfolioValue;
+    }
+
+    /***
+     * Returns the initial budget plus the realised and unrealised profits.
+     */
+    @Override
+    protected double equity(double currentPortfolioValue) {
+        return initialBudget + realizedProfit + currentPortfolioValue;
+    }
+
+    @Override
+    protected double grossExposure() {
+        return grossExposure;
+    }
+
+    /***
+     * Matches the resting orders of the stock against its new bar and values its position again.
+     */
+    @Override
+    protected void priceChanged(int symbol) {
+        if (orders.openOrders(symbol) > 0) {
+            matchOrders(symbol);
+        }
+        if (book.netAmount(symbol) != 0) {
+            revalue(symbol);
+        }
+    }
+
+    /***
+     * Updates the unrealised profit of the stock and {@code portfolioValue}. The profit of a stock
+     * is {@code amount * price - cost}, which equals the sum of {@code amount * (price - buyIn)}
+     * over its open lots. Stocks without a price yet are not valued.
+     */
+    private void revalue(int symbol) {
+        double currentPrice = getCurrentOpen(symbol);
+        double value = 0.0;
+        double exposure = 0.0;
+        if (book.netAmount(symbol) != 0 && !Double.isNaN(currentPrice)) {
+            value = book.netAmount(symbol) * currentPrice - book.cost(symbol);
+            exposure = Math.abs(book.netAmount(symbol) * currentPrice);
+        }
+        double previousExposure = positionExposures[symbol];
+        positionExposures[symbol] = exposure;
+        if (previousExposure == 0.0 && exposure != 0.0) {
+            exposedPositions++;
+        } else if (previousExposure != 0.0 && exposure == 0.0) {
+            exposedPositions--;
+        }
+        grossExposure = exposedPositions == 0 ? 0.0 : grossExposure + exposure - previousExposure;
+        double previousValue = positionValues[symbol];
+        positionValues[symbol] = value;
+        if (previousValue == 0.0 && value != 0.0) {
+            valuedPositions++;
+        } else if (previousValue != 0.0 && value == 0.0) {
+            valuedPositions--;
+        }
+        if (valuedPositions == 0) {
+            // Start from an exact zero once no position is valued, so rounding errors don't add up.
+            portfolioValue = 0.0;
+        } else {
+            portfolioValue += value - previousValue;
         }
-        return currentPortfolioValue;
     }
 
     /***
@@ -391,6 +767,7 @@ public class StockExchange extends Exchange {
      */
     @Override
     public Result getResult() {
+        getRiskMetrics().writeTo(results);
         return results;
     }
 
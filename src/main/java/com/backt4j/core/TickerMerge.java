@@ -0,0 +1,100 @@
+package com.backt4j.core;
+
+import java.util.Arrays;
+
+/***
+ * <p>
+ * A binary min-heap of asset indices ordered by the time stamp of their next {@code DataPoint}. It
+ * is used by {@link Exchange} to merge the time series of multiple assets in chronological order,
+ * and by {@link Backtest} to interleave the {@link Exchange} instances of a {@link Connection} the
+ * same way.
+ * </p>
+ * 
+ * <p>
+ * Adding and removing an asset costs {@code O(log k)} for {@code k} assets. Assets with the same
+ * time stamp are ordered by their index, so the merge is deterministic.
+ * </p>
+ */
+final class TickerMerge {
+
+    private int[] assets;
+    private long[] keys;
+    private int size;
+
+    TickerMerge(int capacity) {
+        assets = new int[Math.max(capacity, 1)];
+        keys = new long[Math.max(capacity, 1)];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /***
+     * Returns the smallest time stamp in the heap. Must not be called if the heap is empty.
+     */
+    long peekKey() {
+        return keys[0];
+    }
+
+    void add(int asset, long key) {
+        if (size == assets.length) {
+            assets = Arrays.copyOf(assets, size * 2);
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(key, asset, keys[parent], assets[parent])) {
+                break;
+            }
+            assets[i] = assets[parent];
+            keys[i] = keys[parent];
+            i = parent;
+        }
+        assets[i] = asset;
+        keys[i] = key;
+    }
+
+    /***
+     * Removes and returns the asset with the smallest time stamp. Must not be called if the heap is
+     * empty.
+     */
+    int poll() {
+        int result = assets[0];
+        size--;
+        if (size > 0) {
+            int asset = assets[size];
+            long key = keys[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size
+                        && less(keys[child + 1], assets[child + 1], keys[child], assets[child])) {
+                    child++;
+                }
+                if (!less(keys[child], assets[child], key, asset)) {
+                    break;
+                }
+                assets[i] = assets[child];
+                keys[i] = keys[child];
+                i = child;
+            }
+            assets[i] = asset;
+            keys[i] = key;
+        }
+        return result;
+    }
+
+    private static boolean less(long key, int asset, long otherKey, int otherAsset) {
+        return key < otherKey || (key == otherKey && asset < otherAsset);
+    }
+
+}
@@ -0,0 +1,372 @@
+package com.backt4j.core;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.backt4j.data.SymbolTable;
+
+/***
+ * <p>
+ * An append-only file of the transactions of a {@link StockExchange}, written through memory
+ * mapped chunks instead of being kept on the heap.
+ * </p>
+ *
+ * <p>
+ * The file starts with a header of 16 bytes: magic ({@code int}), version ({@code int}) and the
+ * amount of records ({@code long}). It is followed by one record of 24 bytes per transaction: time
+ * stamp ({@code long}), price ({@code double}), amount ({@code int}) and the symbol id of the
+ * stock ({@code int}), which refers to the {@link SymbolTable} of the {@code StockExchange}. All
+ * values are stored in little endian byte order.
+ * </p>
+ *
+ * <p>
+ * The tickers of the symbol ids are written to a sidecar file next to the journal (see
+ * {@code tickersPath}) by {@code flush} and {@code close}, one UTF-8 encoded ticker per line in
+ * the order of their ids. A journal returned by {@code open} reads them back, so its records can
+ * be mapped to their tickers after the run.
+ * </p>
+ *
+ * <p>
+ * The file is mapped in chunks of 2^20 records (24 MiB), so appending a record is a few absolute
+ * puts and the heap only holds the references to the chunks. The operating system writes the pages
+ * back to the file, which lets a run produce far more transactions than fit into the heap. The
+ * records are read back by index or with a {@link Cursor}, and {@code open} maps an existing
+ * journal for analysis after the run. The amount of records in the header is updated by
+ * {@code flush} and {@code close}.
+ * </p>
+ *
+ * <p>
+ * The file keeps the size of its mapped chunks, so it may end with up to one chunk of unused
+ * records. It is not truncated on {@code close}, as the chunks are still mapped until they are
+ * garbage collected and some platforms can't truncate a mapped file. The amount of records in the
+ * header bounds the records read by {@code open}.
+ * </p>
+ */
+public final class TradeJournal implements AutoCloseable {
+
+    static final int MAGIC = 0x31544234; // "B4T1"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    public static final String TICKERS_EXTENSION = ".tickers";
+    public static final int RECORD_SIZE = 24;
+
+    private static final int CHUNK_SHIFT = 20;
+    private static final int RECORDS_PER_CHUNK = 1 << CHUNK_SHIFT;
+    private static final long CHUNK_SIZE = (long) RECORDS_PER_CHUNK * RECORD_SIZE;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final boolean writable;
+    private final MappedByteBuffer header;
+    private final List<MappedByteBuffer> chunks;
+    /***
+     * The symbols of a journal that is written, set by the {@code StockExchange}, and the tickers
+     * read from the sidecar file of an opened journal.
+     */
+    private SymbolTable symbols;
+    private String[] tickers;
+    private long size;
+    private boolean closed;
+
+    private TradeJournal(Path fileArg, FileChannel channelArg, boolean writableArg)
+            throws IOException {
+        file = fileArg;
+        channel = channelArg;
+        writable = writableArg;
+        header = map(0, HEADER_SIZE);
+        chunks = new ArrayList<>();
+    }
+
+    private MappedByteBuffer map(long position, long mapSize) throws IOException {
+        MappedByteBuffer buffer = channel.map(writable ? FileChannel.MapMode.READ_WRITE
+                : FileChannel.MapMode.READ_ONLY, position, mapSize);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    /***
+     * Returns the path of the sidecar file with the tickers of a journal, which is right next to
+     * it with the {@code .tickers} extension appended.
+     */
+    public static Path tickersPath(Path file) {
+        return file.resolveSibling(file.getFileName() + TICKERS_EXTENSION);
+    }
+
+    /***
+     * Creates a new, empty journal, replacing the file and its tickers if they exist.
+     *
+     * @param file The path of the journal file.
+     */
+    public static TradeJournal create(Path file) throws Exception {
+        Files.deleteIfExists(tickersPath(file));
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            TradeJournal journal = new TradeJournal(file, channel, true);
+            journal.header.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, 0L);
+            return journal;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /***
+     * Maps an existing journal read-only.
+     *
+     * @param file The path of the journal file.
+     * @throws Exception in case the file is no journal or was written by another version.
+     */
+    public static TradeJournal open(Path file) throws Exception {
+        if (!Files.isRegularFile(file) || Files.size(file) < HEADER_SIZE) {
+            throw new Exception("No trade journal found at " + file);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            TradeJournal journal = new TradeJournal(file, channel, false);
+            if (journal.header.getInt(0) != MAGIC || journal.header.getInt(4) != VERSION) {
+                throw new Exception(file + " is no trade journal of version " + VERSION);
+            }
+            // Records appended after the last flush are lost if the writer didn't close the
+            // journal, so only the records within the file are trusted.
+            journal.size = Math.min(journal.header.getLong(8),
+                    (channel.size() - HEADER_SIZE) / RECORD_SIZE);
+            for (long offset = 0; offset < journal.size * RECORD_SIZE; offset += CHUNK_SIZE) {
+                long chunkSize = Math.min(CHUNK_SIZE, journal.size * RECORD_SIZE - offset);
+                journal.chunks.add(journal.map(HEADER_SIZE + offset, chunkSize));
+            }
+            Path tickersFile = tickersPath(file);
+            if (Files.isRegularFile(tickersFile)) {
+                journal.tickers = Files.readAllLines(tickersFile, StandardCharsets.UTF_8)
+                        .toArray(new String[0]);
+            }
+            return journal;
+        } catch (Exception e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /***
+     * Appends a record, mapping a new chunk of the file if the last one is full.
+     */
+    void append(int symbol, int amount, double price, long timeStamp) {
+        checkOpen();
+        if (!writable) {
+            throw new IllegalStateException(file + " was opened read-only.");
+        }
+        int chunk = (int) (size >>> CHUNK_SHIFT);
+        if (chunk == chunks.size()) {
+            try {
+                chunks.add(map(HEADER_SIZE + chunk * CHUNK_SIZE, CHUNK_SIZE));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Mapping " + file + " failed", e);
+            }
+        }
+        int offset = (int) (size & (RECORDS_PER_CHUNK - 1)) * RECORD_SIZE;
+        chunks.get(chunk).putLong(offset, timeStamp).putDouble(offset + 8, price)
+                .putInt(offset + 16, amount).putInt(offset + 20, symbol);
+        size++;
+    }
+
+    /***
+     * Sets the symbols the symbol ids of the records refer to. Called by the
+     * {@code StockExchange} the journal is set on.
+     */
+    void setSymbols(SymbolTable symbolsArg) {
+        symbols = symbolsArg;
+    }
+
+    /***
+     * Returns the amount of records in the journal.
+     */
+    public long size() {
+        return size;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long timeStamp(long index) {
+        return chunk(index).getLong(offset(index));
+    }
+
+    public double price(long index) {
+        return chunk(index).getDouble(offset(index) + 8);
+    }
+
+    public int amount(long index) {
+        return chunk(index).getInt(offset(index) + 16);
+    }
+
+    /***
+     * Returns the symbol id of the stock of the record, see {@code StockExchange.getSymbols()}.
+     */
+    public int symbol(long index) {
+        return chunk(index).getInt(offset(index) + 20);
+    }
+
+    /***
+     * Returns the ticker of the record.
+     */
+    public String ticker(long index) {
+        return symbolName(symbol(index));
+    }
+
+    /***
+     * Returns the ticker with the given symbol id.
+     *
+     * @throws IndexOutOfBoundsException in case the id is unknown, e.g. because the journal was
+     *         opened without its sidecar file.
+     */
+    public String symbolName(int id) {
+        if (symbols != null) {
+            return symbols.symbol(id);
+        }
+        if (tickers == null || id < 0 || id >= tickers.length) {
+            throw new IndexOutOfBoundsException("Unknown symbol id " + id + " in " + file);
+        }
+        return tickers[id];
+    }
+
+    private MappedByteBuffer chunk(long index) {
+        checkOpen();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(
+                    "Record " + index + " is out of bounds for " + size + " records");
+        }
+        return chunks.get((int) (index >>> CHUNK_SHIFT));
+    }
+
+    private static int offset(long index) {
+        return (int) (index & (RECORDS_PER_CHUNK - 1)) * RECORD_SIZE;
+    }
+
+    /***
+     * Returns a {@link Cursor} positioned before the first record.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /***
+     * Writes the amount of records to the header, forces the mapped chunks to the file and writes
+     * the tickers to the sidecar file.
+     */
+    public void flush() {
+        checkOpen();
+        if (writable) {
+            header.putLong(8, size);
+            for (MappedByteBuffer chunk : chunks) {
+                chunk.force();
+            }
+            header.force();
+            if (symbols != null) {
+                writeTickers();
+            }
+        }
+    }
+
+    private void writeTickers() {
+        List<String> lines = new ArrayList<>(symbols.size());
+        for (int id = 0; id < symbols.size(); id++) {
+            lines.add(symbols.symbol(id));
+        }
+        try {
+            Files.write(tickersPath(file), lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Writing the tickers of " + file + " failed", e);
+        }
+    }
+
+    /***
+     * Flushes the journal and releases the channel. The chunks are unmapped once they are garbage
+     * collected.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        chunks.clear();
+        channel.close();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException(file + " was already closed.");
+        }
+    }
+
+    /***
+     * <p>
+     * A flyweight iterating over the records of the journal from the first on. It reads the
+     * fields of the current record straight from the mapped file, so iterating doesn't allocate.
+     * </p>
+     * <p>
+     * Records appended while iterating are visited as well.
+     * </p>
+     */
+    public final class Cursor {
+
+        private long index = -1;
+
+        private Cursor() {}
+
+        /***
+         * Moves to the next record.
+         *
+         * @return {@code false} if there is no record left.
+         */
+        public boolean next() {
+            if (index + 1 >= size) {
+                return false;
+            }
+            index++;
+            return true;
+        }
+
+        public long index() {
+            return index;
+        }
+
+        public long timeStamp() {
+            return TradeJournal.this.timeStamp(index);
+        }
+
+        public double price() {
+            return TradeJournal.this.price(index);
+        }
+
+        public int amount() {
+            return TradeJournal.this.amount(index);
+        }
+
+        public int symbol() {
+            return TradeJournal.this.symbol(index);
+        }
+
+        public String ticker() {
+            return TradeJournal.this.ticker(index);
+        }
+
+    }
+
+}
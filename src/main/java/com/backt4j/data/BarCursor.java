@@ -0,0 +1,86 @@
+package com.backt4j.data;
+
+import java.util.Date;
+
+/***
+ * <p>
+ * A {@code BarCursor} is a reusable view on the price bars of a single ticker held by a
+ * {@link ColumnarData} instance.
+ * </p>
+ * 
+ * <p>
+ * Instead of creating a {@link PriceDataPoint} for every bar, the cursor is moved over the
+ * underlying columns and the fields of the bar it currently points to are read through its getter
+ * methods. This allows a {@link com.backt4j.strategy.Strategy} to read all bars without allocating
+ * a single Object. The values returned by the getters change as soon as the cursor is moved, so
+ * they must be copied if they are needed later on.
+ * </p>
+ * 
+ * <p>
+ * A new cursor is positioned before the first bar, so {@code next()} must be called before the
+ * first bar can be read.
+ * </p>
+ */
+public interface BarCursor {
+
+    /***
+     * Returns the ticker of the bars the cursor runs over.
+     */
+    public String ticker();
+
+    /***
+     * Returns the amount of bars available to the cursor.
+     */
+    public int length();
+
+    /***
+     * Returns the index of the bar the cursor currently points to or {@code -1} if {@code next()}
+     * was not called yet.
+     */
+    public int position();
+
+    /***
+     * Returns {@code true} if there is at least one bar after the current one.
+     */
+    public boolean hasNext();
+
+    /***
+     * Moves the cursor to the next bar.
+     * 
+     * @return {@code true} if the cursor points to a bar afterwards, {@code false} if all bars were
+     *         consumed.
+     */
+    public boolean next();
+
+    /***
+     * Moves the cursor to the bar with the given index.
+     * 
+     * @param index The index of the bar, between {@code -1} and {@code length() - 1}.
+     */
+    public void seek(int index);
+
+    public long windowStart();
+
+    public double open();
+
+    public double close();
+
+    public double high();
+
+    public double low();
+
+    public int volume();
+
+    public int transactions();
+
+    /***
+     * Copies the bar the cursor currently points to into a new {@link PriceDataPoint}. This is
+     * meant for code that still works with {@link DataPoint} records, everything else should read
+     * the fields directly.
+     */
+    public default PriceDataPoint toDataPoint() {
+        return new PriceDataPoint(ticker(), volume(), open(), close(), high(), low(),
+                new Date(windowStart()), transactions());
+    }
+
+}
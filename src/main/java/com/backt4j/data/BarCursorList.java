@@ -0,0 +1,46 @@
+package com.backt4j.data;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/***
+ * <p>
+ * A read-only {@link List} view on the bars of one ticker of a {@link ColumnarData} instance.
+ * </p>
+ * 
+ * <p>
+ * It allows {@link ColumnarData} implementations to serve {@code getValues()} without keeping a
+ * second copy of their bars. Each call of {@code get()} creates a new {@link PriceDataPoint}, so the
+ * view is only meant for code that can't work with a {@link BarCursor}.
+ * </p>
+ */
+class BarCursorList extends AbstractList<DataPoint> implements RandomAccess {
+
+    private final ColumnarData data;
+    private final String ticker;
+    private final int length;
+
+    BarCursorList(ColumnarData dataArg, String tickerArg) {
+        data = dataArg;
+        ticker = tickerArg;
+        length = dataArg.length(tickerArg);
+    }
+
+    @Override
+    public DataPoint get(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(
+                    "Index " + index + " is out of bounds for length " + length);
+        }
+        BarCursor cursor = data.cursor(ticker);
+        cursor.seek(index);
+        return cursor.toDataPoint();
+    }
+
+    @Override
+    public int size() {
+        return length;
+    }
+
+}
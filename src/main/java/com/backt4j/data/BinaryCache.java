@@ -0,0 +1,187 @@
+package com.backt4j.data;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/***
+ * <p>
+ * Writes and validates the binary {@code .b4j} cache files read by {@link MappedData}.
+ * </p>
+ * 
+ * <p>
+ * A {@code .b4j} file holds the parsed bars of a CSV file or a directory of CSV files, so the text
+ * parsing only has to be done once. It starts with a fixed header of 40 bytes, followed by a
+ * directory with one entry per ticker and the column blocks of all tickers (see
+ * {@link BufferColumns}). All values are stored in little endian byte order.
+ * </p>
+ * 
+ * <p>
+ * Header: magic ({@code int}), version ({@code int}), header size including the directory
+ * ({@code int}), amount of tickers ({@code int}), size of the source ({@code long}), last
+ * modification of the source in milliseconds ({@code long}), amount of source files ({@code int})
+ * and four bytes of padding.
+ * </p>
+ * 
+ * <p>
+ * Directory entry: length of the ticker in bytes ({@code short}), the UTF-8 encoded ticker, amount
+ * of bars ({@code int}) and the offset of the column block in the file ({@code long}).
+ * </p>
+ * 
+ * <p>
+ * The size, modification time and amount of files of the source are used to detect whether a cache
+ * file is stale. For a directory they are the sum of the sizes, the latest modification time and
+ * the amount of Flat Files in it.
+ * </p>
+ */
+public final class BinaryCache {
+
+    public static final String EXTENSION = ".b4j";
+
+    static final int MAGIC = 0x314A3442; // "B4J1"
+    static final int VERSION = 1;
+    static final int FIXED_HEADER_SIZE = 40;
+
+    private BinaryCache() {}
+
+    /***
+     * The size, modification time and amount of files of a cache source.
+     */
+    record SourceStamp(long size, long lastModified, int files) {
+    };
+
+    /***
+     * Returns the default location of the cache file for a CSV file or directory, which is right
+     * next to it with the {@code .b4j} extension appended.
+     */
+    public static Path cachePath(Path source) {
+        Path absoluteSource = source.toAbsolutePath().normalize();
+        return absoluteSource.resolveSibling(absoluteSource.getFileName() + EXTENSION);
+    }
+
+    /***
+     * Returns {@code true} if the cache file doesn't exist, can't be read, was written by another
+     * version or was created from a different state of the source.
+     * 
+     * @param source The CSV file or directory the cache file was created from.
+     * @param cache The cache file.
+     */
+    public static boolean isStale(Path source, Path cache) throws Exception {
+        if (!Files.isRegularFile(cache) || Files.size(cache) < FIXED_HEADER_SIZE) {
+            return true;
+        }
+        ByteBuffer header = ByteBuffer.allocate(FIXED_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+            }
+        }
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            return true;
+        }
+        SourceStamp stamp = stamp(source);
+        return header.getLong(16) != stamp.size() || header.getLong(24) != stamp.lastModified()
+                || header.getInt(32) != stamp.files();
+    }
+
+    /***
+     * Parses the CSV file or directory {@code source} and writes the cache file {@code cache}.
+     * 
+     * <p>
+     * The file is written to a temporary file first and then moved to its final location, so that
+     * concurrent readers never see a partially written cache file.
+     * </p>
+     * 
+     * @param source The CSV file or directory.
+     * @param cache The location of the cache file.
+     * @return The location of the cache file.
+     */
+    public static Path write(Path source, Path cache) throws Exception {
+        // The stamp is taken before parsing, so a source changed in the meantime will be detected
+        // as stale next time.
+        SourceStamp stamp = stamp(source);
+        ColumnarCSVData data = (ColumnarCSVData) new ColumnarCSVData().init(source.toString());
+        write(data, stamp, cache);
+        return cache;
+    }
+
+    static void write(ColumnarCSVData data, SourceStamp stamp, Path cache) throws Exception {
+
+        // Build the directory first, so the offsets of the column blocks are known.
+        List<String> tickers = List.copyOf(data.getTickers());
+        byte[][] names = new byte[tickers.size()][];
+        long headerSize = FIXED_HEADER_SIZE;
+        for (int i = 0; i < tickers.size(); i++) {
+            names[i] = tickers.get(i).getBytes(StandardCharsets.UTF_8);
+            headerSize += 2 + names[i].length + 4 + 8;
+        }
+        // Align the column blocks to 8 bytes.
+        headerSize = (headerSize + 7) & ~7L;
+        if (headerSize > Integer.MAX_VALUE) {
+            throw new Exception("Too many tickers for a single cache file.");
+        }
+
+        ByteBuffer header = ByteBuffer.allocate((int) headerSize).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt((int) headerSize).putInt(tickers.size());
+        header.putLong(stamp.size()).putLong(stamp.lastModified()).putInt(stamp.files()).putInt(0);
+        long offset = headerSize;
+        for (int i = 0; i < tickers.size(); i++) {
+            int length = data.length(tickers.get(i));
+            if (BufferColumns.blockSize(length) > Integer.MAX_VALUE) {
+                throw new Exception("Too many bars for ticker " + tickers.get(i)
+                        + " to be stored in a single cache file block.");
+            }
+            header.putShort((short) names[i].length).put(names[i]).putInt(length).putLong(offset);
+            offset += BufferColumns.blockSize(length);
+        }
+        header.position(0);
+
+        Path tmp = Files.createTempFile(cache.toAbsolutePath().getParent(),
+                cache.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                offset = headerSize;
+                for (String ticker : tickers) {
+                    PriceColumns columns = data.getColumns(ticker);
+                    long blockSize = BufferColumns.blockSize(columns.length());
+                    MappedByteBuffer block =
+                            channel.map(FileChannel.MapMode.READ_WRITE, offset, blockSize);
+                    BufferColumns.write(columns, block);
+                    offset += blockSize;
+                }
+                channel.force(true);
+            }
+            Files.move(tmp, cache, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    static SourceStamp stamp(Path source) throws Exception {
+        if (Files.isRegularFile(source)) {
+            return new SourceStamp(Files.size(source),
+                    Files.getLastModifiedTime(source).toMillis(), 1);
+        }
+        long size = 0;
+        long lastModified = 0;
+        int files = 0;
+        for (Path f : FlatFiles.list(source)) {
+            size += Files.size(f);
+            lastModified = Math.max(lastModified, Files.getLastModifiedTime(f).toMillis());
+            files++;
+        }
+        return new SourceStamp(size, lastModified, files);
+    }
+
+}
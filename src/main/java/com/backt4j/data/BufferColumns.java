@@ -0,0 +1,230 @@
+package com.backt4j.data;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+/***
+ * <p>
+ * The price bars of a single ticker stored column by column in a {@link ByteBuffer}, e.g. a memory
+ * mapped region of a {@code .b4j} file.
+ * </p>
+ * 
+ * <p>
+ * The columns of a ticker with {@code n} bars are laid out one after another: window_start
+ * ({@code 8n} bytes), open, close, high and low ({@code 8n} bytes each), volume and transactions
+ * ({@code 4n} bytes each). All values are stored in little endian byte order.
+ * </p>
+ */
+final class BufferColumns {
+
+    static final int BYTES_PER_BAR = 48;
+
+    /***
+     * The widths in bytes of the columns in the order they are laid out.
+     */
+    private static final int[] COLUMN_WIDTHS = {8, 8, 8, 8, 8, 4, 4};
+
+    private final String ticker;
+    private final int length;
+    private final ByteBuffer buffer;
+
+    private final int openOffset;
+    private final int closeOffset;
+    private final int highOffset;
+    private final int lowOffset;
+    private final int volumeOffset;
+    private final int transactionsOffset;
+
+    BufferColumns(String tickerArg, ByteBuffer bufferArg, int lengthArg) {
+        ticker = tickerArg;
+        length = lengthArg;
+        buffer = bufferArg.order(ByteOrder.LITTLE_ENDIAN);
+        openOffset = 8 * lengthArg;
+        closeOffset = 16 * lengthArg;
+        highOffset = 24 * lengthArg;
+        lowOffset = 32 * lengthArg;
+        volumeOffset = 40 * lengthArg;
+        transactionsOffset = 44 * lengthArg;
+    }
+
+    /***
+     * Returns the amount of bytes a block with {@code length} bars takes up.
+     */
+    static long blockSize(int length) {
+        return (long) BYTES_PER_BAR * length;
+    }
+
+    /***
+     * Writes the bars of {@code columns} into {@code target} in the layout described above,
+     * starting at the current position of {@code target}.
+     */
+    static void write(PriceColumns columns, ByteBuffer target) {
+        ByteBuffer block = target.slice().order(ByteOrder.LITTLE_ENDIAN);
+        int n = columns.length();
+        for (int i = 0; i < n; i++) {
+            block.putLong(8 * i, columns.windowStart(i));
+            block.putDouble(8 * (n + i), columns.open(i));
+            block.putDouble(8 * (2 * n + i), columns.close(i));
+            block.putDouble(8 * (3 * n + i), columns.high(i));
+            block.putDouble(8 * (4 * n + i), columns.low(i));
+            block.putInt(40 * n + 4 * i, columns.volume(i));
+            block.putInt(44 * n + 4 * i, columns.transactions(i));
+        }
+        target.position(target.position() + (int) blockSize(n));
+    }
+
+    /***
+     * Writes the bars of all {@code parts} one after another into {@code target}, which has to
+     * hold {@code blockSize} bytes for their total length. Each column is copied in bulk.
+     */
+    static void concat(List<BufferColumns> parts, ByteBuffer target) {
+        int n = 0;
+        for (BufferColumns part : parts) {
+            n += part.length;
+        }
+        int offset = 0;
+        for (BufferColumns part : parts) {
+            for (int column = 0; column < COLUMN_WIDTHS.length; column++) {
+                int width = COLUMN_WIDTHS[column];
+                target.put(columnOffset(column, n) + width * offset, part.buffer,
+                        columnOffset(column, part.length), width * part.length);
+            }
+            offset += part.length;
+        }
+    }
+
+    private static int columnOffset(int column, int length) {
+        return column < 6 ? 8 * column * length : 44 * length;
+    }
+
+    String getTicker() {
+        return ticker;
+    }
+
+    int length() {
+        return length;
+    }
+
+    long windowStart(int index) {
+        return buffer.getLong(index << 3);
+    }
+
+    double open(int index) {
+        return buffer.getDouble(openOffset + (index << 3));
+    }
+
+    double close(int index) {
+        return buffer.getDouble(closeOffset + (index << 3));
+    }
+
+    double high(int index) {
+        return buffer.getDouble(highOffset + (index << 3));
+    }
+
+    double low(int index) {
+        return buffer.getDouble(lowOffset + (index << 3));
+    }
+
+    int volume(int index) {
+        return buffer.getInt(volumeOffset + (index << 2));
+    }
+
+    int transactions(int index) {
+        return buffer.getInt(transactionsOffset + (index << 2));
+    }
+
+    BarCursor cursor() {
+        return new Cursor(this);
+    }
+
+    /***
+     * The {@link BarCursor} over {@link BufferColumns}. Reads go straight to the buffer.
+     */
+    static final class Cursor implements BarCursor {
+
+        private final BufferColumns columns;
+        private int position;
+
+        Cursor(BufferColumns columnsArg) {
+            columns = columnsArg;
+            position = -1;
+        }
+
+        @Override
+        public String ticker() {
+            return columns.ticker;
+        }
+
+        @Override
+        public int length() {
+            return columns.length;
+        }
+
+        @Override
+        public int position() {
+            return position;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position + 1 < columns.length;
+        }
+
+        @Override
+        public boolean next() {
+            if (position + 1 < columns.length) {
+                position++;
+                return true;
+            }
+            position = columns.length;
+            return false;
+        }
+
+        @Override
+        public void seek(int index) {
+            if (index < -1 || index >= columns.length) {
+                throw new IndexOutOfBoundsException(
+                        "Index " + index + " is out of bounds for length " + columns.length);
+            }
+            position = index;
+        }
+
+        @Override
+        public long windowStart() {
+            return columns.windowStart(position);
+        }
+
+        @Override
+        public double open() {
+            return columns.open(position);
+        }
+
+        @Override
+        public double close() {
+            return columns.close(position);
+        }
+
+        @Override
+        public double high() {
+            return columns.high(position);
+        }
+
+        @Override
+        public double low() {
+            return columns.low(position);
+        }
+
+        @Override
+        public int volume() {
+            return columns.volume(position);
+        }
+
+        @Override
+        public int transactions() {
+            return columns.transactions(position);
+        }
+
+    }
+
+}
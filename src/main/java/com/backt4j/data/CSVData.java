@@ -5,11 +5,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Stream;
 
 import java.sql.Timestamp;
 
@@ -33,16 +30,18 @@ import com.opencsv.CSVReader;
  * Each DataPoint has a price and a timeStamp in this implementation.
  * </p>
  * <p>
- * Currently all data for one Exchange must be in one file.
+ * The data for one Exchange can be given as a single file or as a directory of files, e.g. one Flat
+ * File per day. Gzip compressed files ({@code .csv.gz}) are decompressed while they are parsed.
  * </p>
  * 
  * <p>
  * <b>CAUTION:</b>
  * </p>
  * <p>
- * The class expects the Data to be well formatted. This means each stock must have the exact same
- * amount of DataPoints. Beyond that make sure that elements are already sorted in the way the
- * Strategy should be tested on them.
+ * The class expects the Data to be well formatted. This means the DataPoints of each stock must
+ * already be sorted by time. The files of a directory may have a different amount of lines and
+ * stocks may have a different amount of DataPoints, the {@link com.backt4j.core.Exchange} merges
+ * them by their time stamps.
  * </p>
  * 
  * <p>
@@ -74,6 +73,9 @@ public class CSVData implements Data {
     /***
      * Takes a Path to a CSV File an reads all Lines with opencsv.CSVReader.readAll().
      * 
+     * This materializes the whole file and is not used by {@code init()}, which parses the files
+     * line by line instead.
+     * 
      * @param file A Path Object to the desired CSV File.
      * @return All lines are returned in a single List<String[]> Object.
      * @throws Exception If the Path is invalid, an Exception will be thrown.
@@ -87,13 +89,46 @@ public class CSVData implements Data {
     }
 
     /***
+     * The records of a single parsed file and the amount of lines it contained.
+     */
+    private record ParsedFile(HashMap<String, List<DataPoint>> values, int lineCount) {
+    };
+
+    /***
+     * <p>
      * Initialization of the Data Class by parsing the CSV File. Then set up of the values
      * classvariable.
+     * </p>
+     * 
+     * <p>
+     * If a directory is given, all of its files are parsed in parallel on the common
+     * {@link java.util.concurrent.ForkJoinPool}. The results are appended to each other in the
+     * order of the file names, which is the chronological order for Polygon.io Flat Files.
+     * </p>
      * 
      * @param fileString The Path to the file given as String.
      */
     @Override
     public Data init(String fileString) throws Exception {
+        return init(fileString, LoadOptions.all());
+    }
+
+    /***
+     * <p>
+     * Initialization of the Data Class by parsing only the bars of the CSV File(s) that match the
+     * given {@link LoadOptions}.
+     * </p>
+     * 
+     * <p>
+     * For directories with a time range given, files that are known to lie outside of it are not
+     * read at all (see {@link FileIndex}).
+     * </p>
+     * 
+     * @param fileString The Path to the file given as String.
+     * @param options The tickers and time range to load.
+     */
+    @Override
+    public Data init(String fileString, LoadOptions options) throws Exception {
 
         // Parse the CSV file.
         Path filePath = Paths.get(fileString);
@@ -102,91 +137,93 @@ public class CSVData implements Data {
         // header.
         if (filePath.toFile().isFile()) {
 
-            HashMap<String, List<DataPoint>> parsedValues = parseFile(fileString);
-            extendValues(parsedValues);
+            ParsedFile parsedFile = toParsedFile(FlatFileParser.parse(filePath, options));
+            addSize(parsedFile);
+            extendValues(List.of(parsedFile));
 
         } else if (filePath.toFile().isDirectory()) {
 
-            try (Stream<Path> paths = Files.walk(Paths.get(fileString))) {
-                Object[] allFiles = (Object[]) paths.filter(Files::isRegularFile).toArray();
-                for (int i = 0; i < allFiles.length; i++) {
-                    Path f = (Path) allFiles[i];
-                    extendValues(parseFile(f.toString()));
-                }
-            } catch (Exception e) {
-                throw new Exception(e);
+            List<ParsedFile> parsedFiles =
+                    FlatFiles.parseDirectory(filePath, options, CSVData::toParsedFile);
+            for (ParsedFile parsedFile : parsedFiles) {
+                addSize(parsedFile);
             }
+            extendValues(parsedFiles);
 
         }
         return this;
     }
 
-    private void extendValues(HashMap<String, List<DataPoint>> valuesExtention) {
-        for (String key : valuesExtention.keySet()) {
+    private void addSize(ParsedFile parsedFile) {
+        size = size == null ? parsedFile.lineCount() : size + parsedFile.lineCount();
+    }
+
+    /***
+     * Appends the records of all parsed files to values, in the order of the given List. The List
+     * of each ticker is allocated once with its final size, so no records are copied more than
+     * once.
+     */
+    private void extendValues(List<ParsedFile> parsedFiles) {
+        HashMap<String, Integer> totalSizes = new HashMap<>();
+        for (String key : values.keySet()) {
+            totalSizes.put(key, values.get(key).size());
+        }
+        for (ParsedFile parsedFile : parsedFiles) {
+            for (String key : parsedFile.values().keySet()) {
+                totalSizes.merge(key, parsedFile.values().get(key).size(), Integer::sum);
+            }
+        }
+
+        HashMap<String, List<DataPoint>> extendedValues = new HashMap<>();
+        for (String key : totalSizes.keySet()) {
+            List<DataPoint> records = new ArrayList<>(totalSizes.get(key));
             if (values.containsKey(key)) {
-                values.get(key).addAll(valuesExtention.get(key));
-            } else {
-                values.put(key, valuesExtention.get(key));
+                records.addAll(values.get(key));
+            }
+            for (ParsedFile parsedFile : parsedFiles) {
+                List<DataPoint> fileRecords = parsedFile.values().get(key);
+                if (fileRecords != null) {
+                    records.addAll(fileRecords);
+                }
             }
+            extendedValues.put(key, records);
         }
+        values = extendedValues;
     }
 
-    private HashMap<String, List<DataPoint>> parseFile(String pathString) throws Exception {
+    /***
+     * <p>
+     * Turns the bars of a single CSV File parsed by the {@link FlatFileParser} into records.
+     * </p>
+     * 
+     * <p>
+     * In contrast to {@code readAllLines} the file is never materialized as a whole. The parser
+     * reads the bytes of the file in chunks and writes the bars into primitive columns, which are
+     * then turned into one {@link PriceDataPoint} per bar. All records of a ticker share one id
+     * String.
+     * </p>
+     * 
+     * <p>
+     * The method doesn't touch any state of the {@code CSVData} Object, so multiple files can be
+     * parsed at the same time.
+     * </p>
+     * 
+     * @param result The parsed file.
+     * @return The records for each ticker in the file and the amount of lines parsed.
+     */
+    private static ParsedFile toParsedFile(FlatFileParser.Result result) {
 
-        // Parse the CSV file.
-        Path filePath = Paths.get(pathString);
-        List<String[]> allLines = new ArrayList<>();
         HashMap<String, List<DataPoint>> parsedData = new HashMap<>();
 
-        try {
-            allLines = readAllLines(filePath);
-        } catch (Exception e) {
-            System.out.println("An Exception occured" + e.getStackTrace());
-        }
-        Iterator<String[]> allLinesIterator = allLines.iterator();
-
-        // We skip the header.
-        allLinesIterator.next();
-
-        while (allLinesIterator.hasNext()) {
-            String[] line = allLinesIterator.next();
-            String ticker = line[0];
-
-            // Handle values for known tickers and new ones accordingly.
-            try {
-                // Assign opening price as price and window_start as timeStamp.
-                parsedData.get(ticker)
-                        .add(new PriceDataPoint(ticker, (Integer) Integer.parseInt(line[1]),
-                                Double.parseDouble(line[2]), Double.parseDouble(line[3]),
-                                Double.parseDouble(line[4]), Double.parseDouble(line[5]),
-                                new Date(Long.parseLong(line[6])),
-                                (Integer) Integer.parseInt(line[7])));
-            } catch (NullPointerException emptyList) {
-                // The ticker is new and we create a List with the first encountered DataPoint
-                // in it.
-                DataPoint dataPoint = new PriceDataPoint(ticker,
-                        (Integer) Integer.parseInt(line[1]), Double.parseDouble(line[2]),
-                        Double.parseDouble(line[3]), Double.parseDouble(line[4]),
-                        Double.parseDouble(line[5]), new Date(Long.parseLong(line[6])),
-                        (Integer) Integer.parseInt(line[7]));
-                List<DataPoint> records = new ArrayList<>();
-                records.add(dataPoint);
-                parsedData.put(ticker, records);
-            } catch (Exception e) {
-                System.out.println("An Exception other than NullPointException occured: " + e);
-            }
-        }
-
-        if (this.size == null) {
-            this.size = allLines.size() - 1;
-        } else {
-            if (this.size != allLines.size() - 1) {
-                throw new Exception("Amount of lines in a CSV file does not match with "
-                        + "the amount of lines that were already parsed.");
+        for (PriceColumns columns : result.columns().values()) {
+            List<DataPoint> records = new ArrayList<>(columns.length());
+            for (int i = 0; i < columns.length(); i++) {
+                records.add(columns.toDataPoint(i));
             }
+            parsedData.put(columns.getTicker(), records);
         }
 
-        return parsedData;
+        return new ParsedFile(parsedData, result.lines());
 
     }
 
@@ -207,8 +244,8 @@ public class CSVData implements Data {
     }
 
     /***
-     * Returns the {@code size} of the Objects which is defined as the amount of lines, excluding
-     * the header.
+     * Returns the {@code size} of the Objects which is defined as the amount of lines of all
+     * parsed files, excluding their headers.
      */
     @Override
     public Integer size() {
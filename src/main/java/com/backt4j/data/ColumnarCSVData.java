@@ -0,0 +1,239 @@
+package com.backt4j.data;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+/***
+ * <p>
+ * A columnar alternative to {@link CSVData} for Flat Files in the Polygon.io format.
+ * </p>
+ * 
+ * <p>
+ * The bars of every ticker are parsed by the {@link FlatFileParser} straight into a
+ * {@link PriceColumns} instance, which keeps
+ * each field in a primitive array. This takes up roughly 48 bytes per bar instead of a
+ * {@link PriceDataPoint} record with its {@code String} and {@link java.util.Date} references. The
+ * bars are read through a {@link BarCursor}, which {@link com.backt4j.core.Exchange} does
+ * automatically.
+ * </p>
+ * 
+ * <p>
+ * Like {@link CSVData} the class accepts a single file or a directory of files. Files of a
+ * directory are appended to each other in the order of their names. Gzip compressed files
+ * ({@code .csv.gz}) are decompressed while they are parsed.
+ * </p>
+ */
+public class ColumnarCSVData implements ColumnarData {
+
+    public String Id;
+    public Integer size;
+
+    /***
+     * The columns of every ticker, in the order the tickers were encountered.
+     */
+    private LinkedHashMap<String, PriceColumns> columns;
+
+    /***
+     * {@code List} views on the columns, created the first time {@code getValues()} is called.
+     */
+    private HashMap<String, List<DataPoint>> values;
+
+    /***
+     * The ids of the tickers and their columns indexed by id.
+     */
+    private SymbolTable symbols;
+    private PriceColumns[] columnsById;
+
+    public ColumnarCSVData(String IdArg) {
+        Id = IdArg;
+        columns = new LinkedHashMap<>();
+    }
+
+    public ColumnarCSVData() {
+        // Supply default Id if none is given.
+        Id = "columnar-csv-element-" + (new Timestamp(System.currentTimeMillis())).getTime();
+        columns = new LinkedHashMap<>();
+    }
+
+    /***
+     * Creates an instance holding the given parsed columns, e.g. a single page of
+     * {@link PagedData}.
+     */
+    ColumnarCSVData(String IdArg, LinkedHashMap<String, PriceColumns> columnsArg) {
+        Id = IdArg;
+        columns = columnsArg;
+        int totalSize = 0;
+        for (PriceColumns tickerColumns : columns.values()) {
+            totalSize += tickerColumns.length();
+        }
+        size = totalSize;
+        assignSymbols();
+    }
+
+    /***
+     * Initialization of the Data Class by parsing the CSV File, or all files of a directory, into
+     * columns. The files of a directory are parsed in parallel on the common
+     * {@link java.util.concurrent.ForkJoinPool} and appended to each other in the order of their
+     * names.
+     * 
+     * @param fileString The Path to the file or directory given as String.
+     */
+    @Override
+    public Data init(String fileString) throws Exception {
+        return init(fileString, LoadOptions.all());
+    }
+
+    /***
+     * Initialization of the Data Class by parsing only the bars of the CSV File(s) that match the
+     * given {@link LoadOptions}. For directories with a time range given, files that are known to
+     * lie outside of it are not read at all (see {@link FileIndex}).
+     * 
+     * @param fileString The Path to the file or directory given as String.
+     * @param options The tickers and time range to load.
+     */
+    @Override
+    public Data init(String fileString, LoadOptions options) throws Exception {
+
+        Path filePath = Paths.get(fileString);
+
+        if (filePath.toFile().isFile()) {
+            extendColumns(List.of(FlatFileParser.parse(filePath, options).columns()));
+        } else if (filePath.toFile().isDirectory()) {
+            extendColumns(FlatFiles.parseDirectory(filePath, options,
+                    FlatFileParser.Result::columns));
+        } else {
+            throw new Exception("No file or directory found at " + fileString);
+        }
+
+        int totalSize = 0;
+        for (PriceColumns tickerColumns : columns.values()) {
+            totalSize += tickerColumns.length();
+        }
+        size = totalSize;
+        values = null;
+        assignSymbols();
+        return this;
+    }
+
+    private void assignSymbols() {
+        symbols = new SymbolTable(columns.keySet());
+        symbols.freeze();
+        columnsById = columns.values().toArray(new PriceColumns[0]);
+    }
+
+    /***
+     * Appends the columns of all parsed files to the columns of this instance, in the order of the
+     * given List. The columns of each ticker are allocated once with their final size.
+     */
+    private void extendColumns(List<LinkedHashMap<String, PriceColumns>> parsedFiles) {
+        LinkedHashMap<String, Integer> totalSizes = new LinkedHashMap<>();
+        for (String ticker : columns.keySet()) {
+            totalSizes.put(ticker, columns.get(ticker).length());
+        }
+        for (LinkedHashMap<String, PriceColumns> parsedFile : parsedFiles) {
+            for (String ticker : parsedFile.keySet()) {
+                totalSizes.merge(ticker, parsedFile.get(ticker).length(), Integer::sum);
+            }
+        }
+
+        LinkedHashMap<String, PriceColumns> extendedColumns = new LinkedHashMap<>();
+        for (String ticker : totalSizes.keySet()) {
+            PriceColumns tickerColumns = new PriceColumns(ticker, totalSizes.get(ticker));
+            if (columns.containsKey(ticker)) {
+                tickerColumns.addAll(columns.get(ticker));
+            }
+            for (LinkedHashMap<String, PriceColumns> parsedFile : parsedFiles) {
+                PriceColumns fileColumns = parsedFile.get(ticker);
+                if (fileColumns != null) {
+                    tickerColumns.addAll(fileColumns);
+                }
+            }
+            extendedColumns.put(ticker, tickerColumns);
+        }
+        columns = extendedColumns;
+    }
+
+    @Override
+    public String getId() {
+        return Id;
+    }
+
+    /***
+     * Returns the total amount of bars over all tickers.
+     */
+    @Override
+    public Integer size() {
+        return size;
+    }
+
+    @Override
+    public Set<String> getTickers() {
+        return Collections.unmodifiableSet(columns.keySet());
+    }
+
+    @Override
+    public int length(String ticker) {
+        PriceColumns tickerColumns = columns.get(ticker);
+        return tickerColumns == null ? 0 : tickerColumns.length();
+    }
+
+    @Override
+    public SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    @Override
+    public BarCursor cursor(int symbol) {
+        if (symbols == null || symbol < 0 || symbol >= columnsById.length) {
+            return null;
+        }
+        return columnsById[symbol].cursor();
+    }
+
+    @Override
+    public BarCursor cursor(String ticker) {
+        PriceColumns tickerColumns = columns.get(ticker);
+        return tickerColumns == null ? null : tickerColumns.cursor();
+    }
+
+    /***
+     * Returns the {@link PriceColumns} of the given ticker or {@code null} if the ticker is
+     * unknown.
+     */
+    public PriceColumns getColumns(String ticker) {
+        return columns.get(ticker);
+    }
+
+    /***
+     * <p>
+     * Returns read-only {@code List} views on the columns of each ticker.
+     * </p>
+     * 
+     * <p>
+     * The views don't hold a copy of the data, but create a new {@link PriceDataPoint} on every
+     * access. Prefer {@code cursor()} wherever possible.
+     * </p>
+     */
+    @Override
+    public HashMap<String, List<DataPoint>> getValues() throws Exception {
+        if (columns.isEmpty()) {
+            throw new Exception(
+                    "No Data was assigned ColumnarCSVData Object. Make sure to call init() before trying to access values.");
+        }
+        if (values == null) {
+            HashMap<String, List<DataPoint>> views = new HashMap<>();
+            for (String ticker : columns.keySet()) {
+                views.put(ticker, new BarCursorList(this, ticker));
+            }
+            values = views;
+        }
+        return values;
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.backt4j.data;
+
+import java.util.Set;
+
+/***
+ * <p>
+ * A {@link Data} implementation that stores its price bars column by column in primitive arrays (or
+ * similar memory) instead of a {@code List} of {@link PriceDataPoint} records per ticker.
+ * </p>
+ * 
+ * <p>
+ * The bars of a ticker are read through a {@link BarCursor}. {@link com.backt4j.core.Exchange}
+ * recognizes implementations of this interface and advances the cursors directly, so the records
+ * returned by {@code getValues()} are only created for code that explicitly asks for them.
+ * </p>
+ */
+public interface ColumnarData extends Data {
+
+    /***
+     * Returns the tickers for which bars are available, in the order they were encountered while
+     * loading the data.
+     */
+    public Set<String> getTickers();
+
+    /***
+     * Returns the amount of bars available for the given ticker or {@code 0} if the ticker is
+     * unknown.
+     */
+    public int length(String ticker);
+
+    /***
+     * Returns a new {@link BarCursor} positioned before the first bar of the given ticker.
+     * 
+     * @param ticker The ticker of the asset.
+     * @return The cursor or {@code null} if the ticker is unknown.
+     */
+    public BarCursor cursor(String ticker);
+
+    /***
+     * Returns the {@link SymbolTable} which assigns an id to every ticker in {@code getTickers()},
+     * in the same order. The table is frozen and must not be modified.
+     */
+    public SymbolTable getSymbols();
+
+    /***
+     * Returns a new {@link BarCursor} positioned before the first bar of the ticker with the given
+     * id of {@code getSymbols()}.
+     * 
+     * @param symbol The id of the ticker.
+     * @return The cursor or {@code null} if the id is unknown.
+     */
+    public default BarCursor cursor(int symbol) {
+        if (symbol < 0 || symbol >= getSymbols().size()) {
+            return null;
+        }
+        return cursor(getSymbols().symbol(symbol));
+    }
+
+}
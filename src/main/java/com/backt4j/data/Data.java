@@ -51,6 +51,27 @@ public interface Data {
      */
     public Data init(String sourceString) throws Exception;
 
+    /***
+     * <p>
+     * Initializes the implementation with only the part of the data selected by the given
+     * {@link LoadOptions}, e.g. a set of tickers and a time range.
+     * </p>
+     * 
+     * <p>
+     * Implementations that can filter while loading should override this method. The default
+     * implementation only supports {@code LoadOptions.all()}.
+     * </p>
+     * 
+     * @param sourceString The source of the data, e.g. the path to a file.
+     * @param options The part of the data to load.
+     */
+    public default Data init(String sourceString, LoadOptions options) throws Exception {
+        if (!options.isAll()) {
+            throw new Exception(getClass().getSimpleName() + " does not support LoadOptions.");
+        }
+        return init(sourceString);
+    }
+
     public String getId();
 
     public Integer size();
@@ -0,0 +1,449 @@
+package com.backt4j.data;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/***
+ * <p>
+ * A thread-safe cache of loaded {@link Data} instances, so that many
+ * {@link com.backt4j.core.Backtest} instances running against the same files share one parsed
+ * copy.
+ * </p>
+ *
+ * <p>
+ * Entries are keyed by the canonical path of the file or directory, its size and modification time
+ * (see {@link BinaryCache}), the {@link LoadOptions} and the class of the {@link Data}
+ * implementation. Once a source changes on disk the next request loads it again and replaces the
+ * stale entry. If several threads request the same entry at once, it is loaded only once and the
+ * other threads wait for it.
+ * </p>
+ *
+ * <p>
+ * The cache is bounded by an estimate of the bytes its entries take up. The least recently used
+ * entries are evicted first. The returned instances are read-only views: {@code init()} throws and
+ * neither the {@code HashMap} of {@code getValues()} nor its {@code List}s can be modified. Views
+ * on {@link ColumnarData} implement {@link ColumnarData} as well, so
+ * {@link com.backt4j.core.Exchange} still reads them through cursors. {@link PagedData} is the
+ * exception: it holds no bars, just the files to read, and is returned unwrapped.
+ * </p>
+ *
+ * <p>
+ * Most applications use the process-wide instance returned by {@code shared()}.
+ * </p>
+ */
+public final class DataCache {
+
+    /***
+     * The estimated size of a bar held as {@link PriceDataPoint} record, including its
+     * {@link java.util.Date} and the reference in its {@code List}.
+     */
+    static final long BYTES_PER_RECORD = 128;
+
+    private static final DataCache SHARED = new DataCache(Runtime.getRuntime().maxMemory() / 4);
+
+    private record Key(String path, long size, long lastModified, int files,
+            Class<? extends Data> type, LoadOptions options) {
+
+        boolean sameSource(Key other) {
+            return path.equals(other.path) && type.equals(other.type)
+                    && options.equals(other.options);
+        }
+    };
+
+    private record Entry(Data view, long bytes) {
+    };
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Entry> entries;
+    private final HashMap<Key, CompletableFuture<Data>> loading;
+
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /***
+     * @param maxBytesArg The estimated amount of bytes the entries may take up in total.
+     */
+    public DataCache(long maxBytesArg) {
+        maxBytes = maxBytesArg;
+        // Iterating in access order yields the least recently used entry first.
+        entries = new LinkedHashMap<>(16, 0.75f, true);
+        loading = new HashMap<>();
+    }
+
+    /***
+     * Returns the process-wide cache, which may take up a quarter of the maximum heap size.
+     */
+    public static DataCache shared() {
+        return SHARED;
+    }
+
+    public Data get(String path, Class<? extends Data> type) throws Exception {
+        return get(path, LoadOptions.all(), type);
+    }
+
+    /***
+     * Returns a read-only view on the data at {@code path}, loading it only if it is not cached
+     * yet or changed on disk.
+     *
+     * @param path The file or directory to load.
+     * @param options The part of the data to load.
+     * @param type The {@link Data} implementation to use, e.g. {@code ColumnarCSVData.class}. It
+     *        is only instantiated, through its public no-argument constructor, if the data is
+     *        loaded.
+     */
+    public Data get(String path, LoadOptions options, Class<? extends Data> type)
+            throws Exception {
+        Path source = Paths.get(path).toRealPath();
+        BinaryCache.SourceStamp stamp = BinaryCache.stamp(source);
+        Key key = new Key(source.toString(), stamp.size(), stamp.lastModified(), stamp.files(),
+                type, options);
+
+        CompletableFuture<Data> future;
+        boolean loads = false;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hits++;
+                return entry.view();
+            }
+            future = loading.get(key);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                loading.put(key, future);
+                loads = true;
+                misses++;
+            } else {
+                hits++;
+            }
+        }
+
+        if (!loads) {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        }
+
+        try {
+            Data data = type.getDeclaredConstructor().newInstance();
+            data.init(source.toString(), options);
+            Data view = readOnly(data);
+            put(key, new Entry(view, estimateBytes(data)));
+            future.complete(view);
+            return view;
+        } catch (Exception e) {
+            synchronized (this) {
+                loading.remove(key);
+            }
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private synchronized void put(Key key, Entry entry) {
+        loading.remove(key);
+        // Drop the entries of older versions of the source.
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Entry> cached = iterator.next();
+            if (cached.getKey().sameSource(key)) {
+                bytes -= cached.getValue().bytes();
+                iterator.remove();
+            }
+        }
+        if (entry.bytes() > maxBytes) {
+            // The entry would evict everything else and still not fit, so it isn't cached.
+            evictions++;
+            return;
+        }
+        entries.put(key, entry);
+        bytes += entry.bytes();
+        iterator = entries.entrySet().iterator();
+        while (bytes > maxBytes) {
+            bytes -= iterator.next().getValue().bytes();
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /***
+     * Estimates the bytes taken up by the bars of {@code data}.
+     */
+    static long estimateBytes(Data data) {
+        long bars = data.size() == null ? 0 : data.size();
+        return data instanceof ColumnarData ? BufferColumns.blockSize(1) * bars
+                : BYTES_PER_RECORD * bars;
+    }
+
+    /***
+     * Removes all entries. Views handed out before stay usable.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /***
+     * Returns the estimated amount of bytes taken up by all entries.
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    /***
+     * <p>
+     * Returns a read-only view on the initialized {@code data}, like the instances handed out by
+     * the cache, so it can be shared by many {@link com.backt4j.core.Exchange} instances without
+     * caching it.
+     * </p>
+     * <p>
+     * Views are returned as they are. {@link PagedData} is returned as it is as well, as every
+     * {@code Exchange} reads its own pass over the files.
+     * </p>
+     */
+    public static Data readOnly(Data data) {
+        if (data instanceof ReadOnlyData || data instanceof PagedData) {
+            return data;
+        }
+        return data instanceof ColumnarData columnarData ? new ReadOnlyColumnarData(columnarData)
+                : new ReadOnlyData(data);
+    }
+
+    /***
+     * The values of a cached {@link Data} instance with unmodifiable {@code List}s. The
+     * {@link Data} interface returns a {@link HashMap}, so every method that would change the map
+     * throws {@link UnsupportedOperationException} instead.
+     */
+    private static final class ReadOnlyValues extends HashMap<String, List<DataPoint>> {
+
+        private static final long serialVersionUID = 1L;
+
+        ReadOnlyValues(Map<String, List<DataPoint>> values) {
+            super(values.size() * 4 / 3 + 1);
+            for (Map.Entry<String, List<DataPoint>> entry : values.entrySet()) {
+                super.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+            }
+        }
+
+        @Override
+        public List<DataPoint> put(String key, List<DataPoint> value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void putAll(Map<? extends String, ? extends List<DataPoint>> map) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<DataPoint> putIfAbsent(String key, List<DataPoint> value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<DataPoint> remove(Object key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean remove(Object key, Object value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void clear() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<DataPoint> replace(String key, List<DataPoint> value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean replace(String key, List<DataPoint> oldValue, List<DataPoint> newValue) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void replaceAll(BiFunction<? super String, ? super List<DataPoint>,
+                ? extends List<DataPoint>> function) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<DataPoint> computeIfAbsent(String key,
+                Function<? super String, ? extends List<DataPoint>> function) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<DataPoint> computeIfPresent(String key, BiFunction<? super String,
+                ? super List<DataPoint>, ? extends List<DataPoint>> function) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<DataPoint> compute(String key, BiFunction<? super String,
+                ? super List<DataPoint>, ? extends List<DataPoint>> function) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<DataPoint> merge(String key, List<DataPoint> value,
+                BiFunction<? super List<DataPoint>, ? super List<DataPoint>,
+                        ? extends List<DataPoint>> function) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return Collections.unmodifiableSet(super.keySet());
+        }
+
+        @Override
+        public Collection<List<DataPoint>> values() {
+            return Collections.unmodifiableCollection(super.values());
+        }
+
+        @Override
+        public Set<Map.Entry<String, List<DataPoint>>> entrySet() {
+            return Collections.unmodifiableSet(super.entrySet());
+        }
+
+    }
+
+    /***
+     * A read-only view on a cached {@link Data} instance.
+     */
+    private static class ReadOnlyData implements Data {
+
+        private final Data data;
+
+        /***
+         * The values are wrapped once. If {@code data} can't return them, e.g. as it holds no
+         * bars, its exception is kept and thrown by every call of {@code getValues()}.
+         */
+        private final ReadOnlyValues values;
+        private final Exception valuesFailure;
+
+        ReadOnlyData(Data dataArg) {
+            data = dataArg;
+            ReadOnlyValues wrapped = null;
+            Exception failure = null;
+            try {
+                wrapped = new ReadOnlyValues(data.getValues());
+            } catch (Exception e) {
+                failure = e;
+            }
+            values = wrapped;
+            valuesFailure = failure;
+        }
+
+        @Override
+        public Data init(String sourceString) throws Exception {
+            throw new Exception(
+                    "Data " + getId() + " is shared through the DataCache and can't be initialized again.");
+        }
+
+        @Override
+        public Data init(String sourceString, LoadOptions options) throws Exception {
+            return init(sourceString);
+        }
+
+        @Override
+        public String getId() {
+            return data.getId();
+        }
+
+        @Override
+        public Integer size() {
+            return data.size();
+        }
+
+        @Override
+        public HashMap<String, List<DataPoint>> getValues() throws Exception {
+            if (valuesFailure != null) {
+                throw valuesFailure;
+            }
+            return values;
+        }
+
+    }
+
+    /***
+     * A read-only view on a cached {@link ColumnarData} instance. Cursors can't modify the data,
+     * so they are handed out directly.
+     */
+    private static final class ReadOnlyColumnarData extends ReadOnlyData implements ColumnarData {
+
+        private final ColumnarData data;
+
+        ReadOnlyColumnarData(ColumnarData dataArg) {
+            super(dataArg);
+            data = dataArg;
+        }
+
+        @Override
+        public Set<String> getTickers() {
+            return data.getTickers();
+        }
+
+        @Override
+        public int length(String ticker) {
+            return data.length(ticker);
+        }
+
+        @Override
+        public BarCursor cursor(String ticker) {
+            return data.cursor(ticker);
+        }
+
+        @Override
+        public SymbolTable getSymbols() {
+            return data.getSymbols();
+        }
+
+        @Override
+        public BarCursor cursor(int symbol) {
+            return data.cursor(symbol);
+        }
+
+    }
+
+}
@@ -15,4 +15,13 @@ package com.backt4j.data;
  * <p>
  */
 public interface DataPoint {
+
+    /***
+     * Returns the point in time the {@code DataPoint} belongs to. {@link com.backt4j.core.Exchange}
+     * uses it to merge the {@code DataPoint} instances of multiple assets in chronological order.
+     * 
+     * @return The time stamp in the unit of the source data, e.g. milliseconds since epoch.
+     */
+    public long timeStamp();
+
 }
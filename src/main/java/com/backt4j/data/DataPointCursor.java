@@ -0,0 +1,111 @@
+package com.backt4j.data;
+
+import java.util.List;
+
+/***
+ * <p>
+ * A {@link BarCursor} over a {@code List} of {@link PriceDataPoint} records, e.g. the values of a
+ * {@link CSVData} instance.
+ * </p>
+ *
+ * <p>
+ * It allows code written against the cursor API to run on {@link Data} implementations that are
+ * not columnar. The getters read the fields of the record the cursor points to.
+ * </p>
+ */
+final class DataPointCursor implements BarCursor {
+
+    private final String ticker;
+    private final List<DataPoint> dataPoints;
+    private int position;
+    private PriceDataPoint current;
+
+    DataPointCursor(String tickerArg, List<DataPoint> dataPointsArg) {
+        ticker = tickerArg;
+        dataPoints = dataPointsArg;
+        position = -1;
+    }
+
+    @Override
+    public String ticker() {
+        return ticker;
+    }
+
+    @Override
+    public int length() {
+        return dataPoints.size();
+    }
+
+    @Override
+    public int position() {
+        return position;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return position + 1 < dataPoints.size();
+    }
+
+    @Override
+    public boolean next() {
+        if (position + 1 < dataPoints.size()) {
+            position++;
+            current = (PriceDataPoint) dataPoints.get(position);
+            return true;
+        }
+        position = dataPoints.size();
+        current = null;
+        return false;
+    }
+
+    @Override
+    public void seek(int index) {
+        if (index < -1 || index >= dataPoints.size()) {
+            throw new IndexOutOfBoundsException(
+                    "Index " + index + " is out of bounds for length " + dataPoints.size());
+        }
+        position = index;
+        current = index == -1 ? null : (PriceDataPoint) dataPoints.get(index);
+    }
+
+    @Override
+    public long windowStart() {
+        return current.timeStamp();
+    }
+
+    @Override
+    public double open() {
+        return current.open();
+    }
+
+    @Override
+    public double close() {
+        return current.close();
+    }
+
+    @Override
+    public double high() {
+        return current.high();
+    }
+
+    @Override
+    public double low() {
+        return current.low();
+    }
+
+    @Override
+    public int volume() {
+        return current.volume();
+    }
+
+    @Override
+    public int transactions() {
+        return current.transactions();
+    }
+
+    @Override
+    public PriceDataPoint toDataPoint() {
+        return current;
+    }
+
+}
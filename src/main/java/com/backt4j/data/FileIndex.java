@@ -0,0 +1,130 @@
+package com.backt4j.data;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/***
+ * <p>
+ * Remembers the smallest and largest window_start of every file in a directory of Flat Files, so
+ * that files outside the time range of {@link LoadOptions} can be skipped without reading them.
+ * </p>
+ * 
+ * <p>
+ * The index is stored as a tab separated text file next to the directory, with the {@code .b4i}
+ * extension appended to the name of the directory. Each line holds the path of a file relative to
+ * the directory, its size, its last modification time and its window_start range. An entry is only
+ * trusted as long as size and modification time of the file are unchanged. Entries are added
+ * whenever a file was parsed completely.
+ * </p>
+ */
+final class FileIndex {
+
+    static final String EXTENSION = ".b4i";
+
+    private record Entry(long size, long lastModified, long minWindowStart, long maxWindowStart) {
+    };
+
+    private final Path directory;
+    private final Path indexFile;
+    private final HashMap<String, Entry> entries;
+    private boolean modified;
+
+    private FileIndex(Path directoryArg, Path indexFileArg, HashMap<String, Entry> entriesArg) {
+        directory = directoryArg;
+        indexFile = indexFileArg;
+        entries = entriesArg;
+    }
+
+    /***
+     * Loads the index of the given directory or creates an empty one if there is none or it can't
+     * be read.
+     */
+    static FileIndex load(Path directory) {
+        Path absoluteDirectory = directory.toAbsolutePath().normalize();
+        Path indexFile =
+                absoluteDirectory.resolveSibling(absoluteDirectory.getFileName() + EXTENSION);
+        HashMap<String, Entry> entries = new HashMap<>();
+        if (Files.isRegularFile(indexFile)) {
+            try {
+                for (String line : Files.readAllLines(indexFile, StandardCharsets.UTF_8)) {
+                    String[] fields = line.split("\t");
+                    if (fields.length == 5) {
+                        entries.put(fields[0],
+                                new Entry(Long.parseLong(fields[1]), Long.parseLong(fields[2]),
+                                        Long.parseLong(fields[3]), Long.parseLong(fields[4])));
+                    }
+                }
+            } catch (Exception e) {
+                // A broken index is simply rebuilt.
+                entries.clear();
+            }
+        }
+        return new FileIndex(absoluteDirectory, indexFile, entries);
+    }
+
+    /***
+     * Returns {@code false} only if the index knows for sure that the file doesn't contain any bar
+     * in the time range of {@code options}.
+     */
+    synchronized boolean mayOverlap(Path file, LoadOptions options) throws Exception {
+        Entry entry = entries.get(key(file));
+        if (entry == null || entry.size() != Files.size(file)
+                || entry.lastModified() != Files.getLastModifiedTime(file).toMillis()) {
+            return true;
+        }
+        return options.overlaps(entry.minWindowStart(), entry.maxWindowStart());
+    }
+
+    /***
+     * Records the window_start range of a file, if it was parsed completely.
+     */
+    synchronized void record(Path file, FlatFileParser.Result result) throws Exception {
+        if (!result.complete() || result.minWindowStart() > result.maxWindowStart()) {
+            return;
+        }
+        entries.put(key(file), new Entry(Files.size(file),
+                Files.getLastModifiedTime(file).toMillis(), result.minWindowStart(),
+                result.maxWindowStart()));
+        modified = true;
+    }
+
+    /***
+     * Writes the index if entries were added. Failing to write it is not an error, as the index is
+     * only an optimization.
+     */
+    synchronized void save() {
+        if (!modified) {
+            return;
+        }
+        List<String> lines = new ArrayList<>(entries.size());
+        for (String key : entries.keySet()) {
+            Entry entry = entries.get(key);
+            lines.add(key + "\t" + entry.size() + "\t" + entry.lastModified() + "\t"
+                    + entry.minWindowStart() + "\t" + entry.maxWindowStart());
+        }
+        try {
+            Path tmp = Files.createTempFile(indexFile.getParent(),
+                    indexFile.getFileName().toString(), ".tmp");
+            try {
+                Files.write(tmp, lines, StandardCharsets.UTF_8);
+                Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            modified = false;
+        } catch (Exception e) {
+            System.out.println("The file index " + indexFile + " could not be written: " + e);
+        }
+    }
+
+    private String key(Path file) {
+        return directory.relativize(file.toAbsolutePath().normalize()).toString();
+    }
+
+}
@@ -0,0 +1,417 @@
+package com.backt4j.data;
+
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+import com.opencsv.CSVReader;
+
+/***
+ * <p>
+ * A parser for Flat Files in the Polygon.io format that works directly on the bytes of a file and
+ * writes the bars straight into {@link PriceColumns}.
+ * </p>
+ * 
+ * <p>
+ * The schema is fixed: ticker, volume, open, close, high, low, window_start, transactions. Because
+ * of that the parser doesn't need to split a line into {@code String} fields first. It locates the
+ * commas in a reusable byte buffer and parses the numbers in place, so apart from a {@code String}
+ * for each new ticker nothing is allocated per line. Decimals with up to 15 significant digits are
+ * converted exactly like {@code Double.parseDouble} would, anything else is handed over to it.
+ * </p>
+ * 
+ * <p>
+ * Quoted fields are not supported by the byte parser. As soon as a quote is encountered the file is
+ * parsed again with {@code opencsv}.
+ * </p>
+ * 
+ * <p>
+ * If {@link LoadOptions} are given, a line is first checked against the ticker filter, then its
+ * window_start is parsed and checked against the time range. Only if both match the remaining
+ * fields are parsed.
+ * </p>
+ */
+public final class FlatFileParser {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int FIELDS = 8;
+
+    /***
+     * Exact powers of ten that can be used for the conversion of decimals without rounding errors.
+     */
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8,
+            1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private FlatFileParser() {}
+
+    /***
+     * <p>
+     * The columns of every loaded ticker in a file, in the order the tickers were encountered, and
+     * the amount of lines in the file, excluding the header.
+     * </p>
+     * 
+     * <p>
+     * {@code minWindowStart} and {@code maxWindowStart} are the smallest and largest window_start
+     * of all parsed lines. {@code complete} tells whether the window_start of every line was
+     * parsed, which is not the case if lines were skipped because of their ticker.
+     * </p>
+     */
+    public record Result(LinkedHashMap<String, PriceColumns> columns, int lines,
+            long minWindowStart, long maxWindowStart, boolean complete) {
+    };
+
+    /***
+     * Opens the source of a file to parse, which allows to start over with {@code opencsv}.
+     */
+    interface Source {
+        ReadableByteChannel open() throws Exception;
+    }
+
+    /***
+     * Signals that a quoted field was found. Thrown without a stack trace as it is part of the
+     * regular control flow.
+     */
+    private static final class QuotedFieldException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        QuotedFieldException() {
+            super("Quoted field encountered", null, false, false);
+        }
+    }
+
+    /***
+     * Parses the file at {@code file} with the byte parser. Files ending with {@code .gz} are
+     * inflated on a separate thread while they are parsed.
+     */
+    public static Result parse(Path file) throws Exception {
+        return parse(file, LoadOptions.all());
+    }
+
+    /***
+     * Parses the bars of the file at {@code file} that match the given {@link LoadOptions}.
+     */
+    public static Result parse(Path file, LoadOptions options) throws Exception {
+        if (GzipChannel.isGzip(file)) {
+            return parse(() -> new GzipChannel(file), options);
+        }
+        return parse(() -> FileChannel.open(file, StandardOpenOption.READ), options);
+    }
+
+    static Result parse(Source source, LoadOptions options) throws Exception {
+        try (ReadableByteChannel channel = source.open()) {
+            return new FlatFileParser.State(options).run(channel);
+        } catch (QuotedFieldException e) {
+            try (ReadableByteChannel channel = source.open()) {
+                return parseWithOpenCsv(Channels.newReader(channel, StandardCharsets.UTF_8),
+                        options);
+            }
+        }
+    }
+
+    /***
+     * Parses the file at {@code file} with {@code opencsv}, the way {@link CSVData} used to.
+     */
+    public static Result parseWithOpenCsv(Path file) throws Exception {
+        try (ReadableByteChannel channel = GzipChannel.isGzip(file) ? new GzipChannel(file)
+                : FileChannel.open(file, StandardOpenOption.READ)) {
+            return parseWithOpenCsv(Channels.newReader(channel, StandardCharsets.UTF_8),
+                    LoadOptions.all());
+        }
+    }
+
+    private static Result parseWithOpenCsv(Reader reader, LoadOptions options) throws Exception {
+        LinkedHashMap<String, PriceColumns> parsedColumns = new LinkedHashMap<>();
+        int lines = 0;
+        long minWindowStart = Long.MAX_VALUE;
+        long maxWindowStart = Long.MIN_VALUE;
+        boolean complete = true;
+
+        try (CSVReader csvReader = new CSVReader(reader)) {
+
+            // We skip the header.
+            csvReader.readNext();
+
+            // Flat Files are sorted by ticker, so we only look up the columns if the ticker
+            // changes.
+            String currentTicker = null;
+            boolean currentIncluded = false;
+
+            String[] line;
+            while ((line = csvReader.readNext()) != null) {
+                lines++;
+                try {
+                    if (!line[0].equals(currentTicker)) {
+                        currentTicker = line[0];
+                        currentIncluded = options.includesTicker(currentTicker);
+                    }
+                    if (!currentIncluded) {
+                        complete = false;
+                        continue;
+                    }
+                    long windowStart = Long.parseLong(line[6]);
+                    minWindowStart = Math.min(minWindowStart, windowStart);
+                    maxWindowStart = Math.max(maxWindowStart, windowStart);
+                    if (!options.includesWindowStart(windowStart)) {
+                        continue;
+                    }
+                    parsedColumns.computeIfAbsent(currentTicker, PriceColumns::new).add(
+                            Integer.parseInt(line[1]), Double.parseDouble(line[2]),
+                            Double.parseDouble(line[3]), Double.parseDouble(line[4]),
+                            Double.parseDouble(line[5]), windowStart, Integer.parseInt(line[7]));
+                } catch (Exception e) {
+                    System.out.println("An Exception occured while parsing a line: " + e);
+                }
+            }
+        }
+        return new Result(parsedColumns, lines, minWindowStart, maxWindowStart, complete);
+    }
+
+    /***
+     * The state of a single run of the byte parser.
+     */
+    private static final class State {
+
+        private final LoadOptions options;
+        private final LinkedHashMap<String, PriceColumns> parsedColumns = new LinkedHashMap<>();
+        private final int[] fieldEnds = new int[FIELDS];
+        private byte[] buffer = new byte[BUFFER_SIZE];
+        private int lines = -1; // The header is not counted.
+        private long minWindowStart = Long.MAX_VALUE;
+        private long maxWindowStart = Long.MIN_VALUE;
+        private boolean complete = true;
+
+        private byte[] currentTicker = new byte[16];
+        private int currentTickerLength = -1;
+        private String currentTickerName;
+        private boolean currentIncluded;
+        private PriceColumns currentColumns;
+
+        State(LoadOptions optionsArg) {
+            options = optionsArg;
+        }
+
+        Result run(ReadableByteChannel channel) throws Exception {
+            int start = 0;
+            int end = 0;
+            int scan = 0;
+            boolean eof = false;
+
+            while (true) {
+                int newLine = -1;
+                for (int i = scan; i < end; i++) {
+                    if (buffer[i] == '\n') {
+                        newLine = i;
+                        break;
+                    }
+                }
+
+                if (newLine >= 0) {
+                    parseLine(start, newLine);
+                    start = newLine + 1;
+                    scan = start;
+                    continue;
+                }
+
+                if (eof) {
+                    if (start < end) {
+                        parseLine(start, end);
+                    }
+                    break;
+                }
+
+                // Move the incomplete line to the front of the buffer and read more bytes.
+                int remaining = end - start;
+                if (remaining == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                } else if (start > 0) {
+                    System.arraycopy(buffer, start, buffer, 0, remaining);
+                }
+                start = 0;
+                end = remaining;
+                scan = remaining;
+                int read = channel.read(ByteBuffer.wrap(buffer, end, buffer.length - end));
+                if (read < 0) {
+                    eof = true;
+                } else {
+                    end += read;
+                }
+            }
+
+            return new Result(parsedColumns, Math.max(lines, 0), minWindowStart, maxWindowStart,
+                    complete);
+        }
+
+        private void parseLine(int from, int to) throws QuotedFieldException {
+            if (to > from && buffer[to - 1] == '\r') {
+                to--;
+            }
+            if (lines < 0) {
+                // We skip the header.
+                lines = 0;
+                return;
+            }
+            if (to == from) {
+                return;
+            }
+            lines++;
+
+            int fields = 0;
+            for (int i = from; i < to; i++) {
+                byte b = buffer[i];
+                if (b == ',') {
+                    if (fields < FIELDS) {
+                        fieldEnds[fields] = i;
+                    }
+                    fields++;
+                } else if (b == '"') {
+                    throw new QuotedFieldException();
+                }
+            }
+            if (fields != FIELDS - 1) {
+                System.out.println("An Exception occured while parsing a line: expected " + FIELDS
+                        + " fields but found " + (fields + 1));
+                return;
+            }
+            fieldEnds[FIELDS - 1] = to;
+
+            if (!selectTicker(from, fieldEnds[0])) {
+                complete = false;
+                return;
+            }
+
+            try {
+                long windowStart = parseLong(fieldEnds[5] + 1, fieldEnds[6]);
+                if (windowStart < minWindowStart) {
+                    minWindowStart = windowStart;
+                }
+                if (windowStart > maxWindowStart) {
+                    maxWindowStart = windowStart;
+                }
+                if (!options.includesWindowStart(windowStart)) {
+                    return;
+                }
+                int volume = parseInt(fieldEnds[0] + 1, fieldEnds[1]);
+                double open = parseDouble(fieldEnds[1] + 1, fieldEnds[2]);
+                double close = parseDouble(fieldEnds[2] + 1, fieldEnds[3]);
+                double high = parseDouble(fieldEnds[3] + 1, fieldEnds[4]);
+                double low = parseDouble(fieldEnds[4] + 1, fieldEnds[5]);
+                int transactions = parseInt(fieldEnds[6] + 1, fieldEnds[7]);
+                if (currentColumns == null) {
+                    currentColumns =
+                            parsedColumns.computeIfAbsent(currentTickerName, PriceColumns::new);
+                }
+                currentColumns.add(volume, open, close, high, low, windowStart, transactions);
+            } catch (NumberFormatException e) {
+                System.out.println("An Exception occured while parsing a line: " + e);
+            }
+        }
+
+        /***
+         * Makes the ticker in {@code buffer[from, to)} the current one and returns whether it is
+         * included by the {@link LoadOptions}. Only if the ticker differs from the one of the
+         * previous line a {@code String} is created to look it up. The columns of a ticker are
+         * created once its first bar is added.
+         */
+        private boolean selectTicker(int from, int to) {
+            int length = to - from;
+            if (length == currentTickerLength
+                    && Arrays.equals(buffer, from, to, currentTicker, 0, length)) {
+                return currentIncluded;
+            }
+            if (currentTicker.length < length) {
+                currentTicker = new byte[length];
+            }
+            System.arraycopy(buffer, from, currentTicker, 0, length);
+            currentTickerLength = length;
+            currentTickerName = new String(buffer, from, length, StandardCharsets.UTF_8);
+            currentIncluded = options.includesTicker(currentTickerName);
+            currentColumns = parsedColumns.get(currentTickerName);
+            return currentIncluded;
+        }
+
+        private long parseLong(int from, int to) {
+            int i = from;
+            boolean negative = false;
+            if (i < to && (buffer[i] == '-' || buffer[i] == '+')) {
+                negative = buffer[i] == '-';
+                i++;
+            }
+            if (i == to) {
+                return Long.parseLong(text(from, to));
+            }
+            // Up to 19 digits, e.g. a window_start in nanoseconds, are parsed in place. Invalid
+            // digits and values that overflow are left to Long.parseLong to report.
+            long value = 0;
+            for (; i < to; i++) {
+                int digit = buffer[i] - '0';
+                if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                    return Long.parseLong(text(from, to));
+                }
+                value = value * 10 + digit;
+            }
+            return negative ? -value : value;
+        }
+
+        private int parseInt(int from, int to) {
+            long value = parseLong(from, to);
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                throw new NumberFormatException("Value out of range: " + text(from, to));
+            }
+            return (int) value;
+        }
+
+        private double parseDouble(int from, int to) {
+            int i = from;
+            boolean negative = false;
+            if (i < to && (buffer[i] == '-' || buffer[i] == '+')) {
+                negative = buffer[i] == '-';
+                i++;
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int fractionDigits = 0;
+            boolean point = false;
+            boolean anyDigit = false;
+            for (; i < to; i++) {
+                byte b = buffer[i];
+                if (b >= '0' && b <= '9') {
+                    anyDigit = true;
+                    if (mantissa == 0 && b == '0') {
+                        // Leading zeros don't count as significant digits.
+                    } else if (++digits > 15) {
+                        return Double.parseDouble(text(from, to));
+                    }
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (point) {
+                        fractionDigits++;
+                    }
+                } else if (b == '.' && !point) {
+                    point = true;
+                } else {
+                    // Exponents, NaN, Infinity and malformed input.
+                    return Double.parseDouble(text(from, to));
+                }
+            }
+            if (!anyDigit || fractionDigits >= POWERS_OF_TEN.length) {
+                return Double.parseDouble(text(from, to));
+            }
+            // Both the mantissa and the power of ten are exact doubles, so the division is
+            // correctly rounded.
+            double value = mantissa / POWERS_OF_TEN[fractionDigits];
+            return negative ? -value : value;
+        }
+
+        private String text(int from, int to) {
+            return new String(buffer, from, to - from, StandardCharsets.UTF_8);
+        }
+
+    }
+
+}
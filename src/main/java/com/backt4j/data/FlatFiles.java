@@ -0,0 +1,117 @@
+package com.backt4j.data;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Stream;
+
+/***
+ * Helper methods shared by the {@link Data} implementations that read directories of Flat Files.
+ */
+final class FlatFiles {
+
+    private FlatFiles() {}
+
+    /***
+     * <p>
+     * Returns all Flat Files ({@code .csv} or {@code .csv.gz}) in the directory and its
+     * subdirectories, sorted by their path. Polygon.io names its Flat Files after the day they
+     * cover (e.g. {@code 2024-10-01.csv}), so this is the chronological order of the files.
+     * </p>
+     * 
+     * <p>
+     * Other files are skipped, so the {@code .b4j} caches and {@code .b4i} indexes written next to
+     * a file or directory are never parsed as CSV when a directory above them is loaded.
+     * </p>
+     */
+    static List<Path> list(Path directory) throws Exception {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(path -> Files.isRegularFile(path) && isFlatFile(path)).sorted()
+                    .toList();
+        }
+    }
+
+    static boolean isFlatFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(".csv") || name.endsWith(".csv" + GzipChannel.EXTENSION);
+    }
+
+    /***
+     * A task that parses a single file.
+     */
+    interface FileParser<T> {
+        T parse(Path file) throws Exception;
+    }
+
+    /***
+     * Parses all files in parallel on the common {@link ForkJoinPool} and returns the results in
+     * the order of {@code files}.
+     */
+    static <T> List<T> parseAll(List<Path> files, FileParser<T> parser) throws Exception {
+        List<ForkJoinTask<T>> tasks = new ArrayList<>(files.size());
+        for (Path file : files) {
+            tasks.add(ForkJoinPool.commonPool().submit(() -> parser.parse(file)));
+        }
+        List<T> results = new ArrayList<>(files.size());
+        try {
+            for (ForkJoinTask<T> task : tasks) {
+                results.add(task.get());
+            }
+        } catch (ExecutionException e) {
+            for (ForkJoinTask<T> task : tasks) {
+                task.cancel(true);
+            }
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    /***
+     * A conversion of a parsed file into the representation of a {@link Data} implementation.
+     */
+    interface Converter<T> {
+        T convert(FlatFileParser.Result result) throws Exception;
+    }
+
+    /***
+     * <p>
+     * Parses all files of a directory that match the given {@link LoadOptions} in parallel and
+     * returns the converted results in the chronological order of the files.
+     * </p>
+     * 
+     * <p>
+     * If the options contain a time range the {@link FileIndex} of the directory is used to skip
+     * files that don't overlap with it. Files parsed completely are added to the index.
+     * </p>
+     */
+    static <T> List<T> parseDirectory(Path directory, LoadOptions options,
+            Converter<T> converter) throws Exception {
+        List<Path> files = list(directory);
+        if (!options.hasTimeRange()) {
+            return parseAll(files, file -> converter.convert(FlatFileParser.parse(file, options)));
+        }
+
+        FileIndex index = FileIndex.load(directory);
+        List<Path> overlappingFiles = new ArrayList<>(files.size());
+        for (Path file : files) {
+            if (index.mayOverlap(file, options)) {
+                overlappingFiles.add(file);
+            }
+        }
+        List<T> results = parseAll(overlappingFiles, file -> {
+            FlatFileParser.Result result = FlatFileParser.parse(file, options);
+            index.record(file, result);
+            return converter.convert(result);
+        });
+        index.save();
+        return results;
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.backt4j.data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+
+/***
+ * <p>
+ * A {@link ReadableByteChannel} over the decompressed content of a gzip file, e.g. a
+ * {@code .csv.gz} Flat File as shipped by Polygon.io.
+ * </p>
+ * 
+ * <p>
+ * The file is inflated on a separate thread, so decompression and parsing overlap. Both threads
+ * are connected by a bounded queue of {@link #CHUNKS} reusable chunks: the inflating thread fills
+ * empty chunks and hands them over, the reading thread drains them and returns them. If the parser
+ * is slower the inflating thread waits, so at most {@code CHUNKS * CHUNK_SIZE} bytes are buffered.
+ * </p>
+ */
+final class GzipChannel implements ReadableByteChannel {
+
+    static final String EXTENSION = ".gz";
+
+    private static final int CHUNK_SIZE = 1 << 18;
+    private static final int CHUNKS = 4;
+
+    /***
+     * Marks the end of the decompressed content.
+     */
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+    private static final ExecutorService INFLATERS = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "backt4j-gzip-inflater");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final BlockingQueue<ByteBuffer> filled = new ArrayBlockingQueue<>(CHUNKS + 1);
+    private final BlockingQueue<ByteBuffer> empty = new ArrayBlockingQueue<>(CHUNKS);
+    private final Future<?> inflater;
+
+    private volatile IOException failure;
+    private ByteBuffer current;
+    private boolean open = true;
+
+    GzipChannel(Path file) {
+        for (int i = 0; i < CHUNKS; i++) {
+            empty.add(ByteBuffer.allocate(CHUNK_SIZE));
+        }
+        inflater = INFLATERS.submit(() -> inflate(file));
+    }
+
+    static boolean isGzip(Path file) {
+        return file.getFileName().toString().endsWith(EXTENSION);
+    }
+
+    private void inflate(Path file) {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file), CHUNK_SIZE)) {
+            while (true) {
+                ByteBuffer chunk = empty.take();
+                chunk.clear();
+                byte[] array = chunk.array();
+                int length = 0;
+                int read = 0;
+                while (length < array.length && (read = in.read(array, length,
+                        array.length - length)) >= 0) {
+                    length += read;
+                }
+                if (length > 0) {
+                    chunk.limit(length);
+                    filled.put(chunk);
+                }
+                if (read < 0) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (RuntimeException | Error e) {
+            // The reader waits for the END below, so it must be posted whatever went wrong.
+            failure = new IOException("Could not inflate " + file + ".", e);
+        } catch (InterruptedException e) {
+            // The channel was closed before the file was inflated entirely.
+            return;
+        }
+        filled.add(END);
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+        if (current == END) {
+            return -1;
+        }
+        if (current == null || !current.hasRemaining()) {
+            if (current != null) {
+                empty.add(current);
+            }
+            try {
+                current = filled.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for decompressed data.", e);
+            }
+            if (current == END) {
+                if (failure != null) {
+                    throw failure;
+                }
+                return -1;
+            }
+        }
+        int length = Math.min(dst.remaining(), current.remaining());
+        int limit = current.limit();
+        current.limit(current.position() + length);
+        dst.put(current);
+        current.limit(limit);
+        return length;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() {
+        if (open) {
+            open = false;
+            inflater.cancel(true);
+        }
+    }
+
+}
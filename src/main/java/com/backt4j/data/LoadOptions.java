@@ -0,0 +1,164 @@
+package com.backt4j.data;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/***
+ * <p>
+ * Restricts which bars are loaded by {@link Data#init(String, LoadOptions)}.
+ * </p>
+ * 
+ * <p>
+ * A {@code LoadOptions} Object can limit the data to a set of tickers and to a range
+ * {@code [from, to)} of window_start values, given in the same unit as in the source files. Bars
+ * that don't match are skipped while parsing, before any of their numbers are parsed, so the
+ * memory and time needed to load scales with the selection and not with the size of the source.
+ * </p>
+ * 
+ * <p>
+ * Instances are immutable and created with the {@link LoadOptions.Builder}. {@code all()} returns
+ * the options that load everything.
+ * </p>
+ */
+public final class LoadOptions {
+
+    private static final LoadOptions ALL = new LoadOptions(null, Long.MIN_VALUE, Long.MAX_VALUE);
+
+    /***
+     * The tickers to load or {@code null} if all tickers should be loaded.
+     */
+    private final Set<String> tickers;
+    private final long from;
+    private final long to;
+
+    private LoadOptions(Set<String> tickersArg, long fromArg, long toArg) {
+        tickers = tickersArg;
+        from = fromArg;
+        to = toArg;
+    }
+
+    /***
+     * Returns the options that load all tickers over the whole time range.
+     */
+    public static LoadOptions all() {
+        return ALL;
+    }
+
+    public static class Builder {
+
+        private Set<String> tickers;
+        private long from = Long.MIN_VALUE;
+        private long to = Long.MAX_VALUE;
+
+        public Builder() {}
+
+        /***
+         * Only loads the given tickers.
+         */
+        public Builder tickers(Collection<String> tickerCollection) {
+            tickers = new TreeSet<>(tickerCollection);
+            return this;
+        }
+
+        /***
+         * Only loads bars with a window_start greater than or equal to {@code fromInclusive}.
+         */
+        public Builder from(long fromInclusive) {
+            from = fromInclusive;
+            return this;
+        }
+
+        /***
+         * Only loads bars with a window_start less than {@code toExclusive}.
+         */
+        public Builder to(long toExclusive) {
+            to = toExclusive;
+            return this;
+        }
+
+        public LoadOptions build() throws Exception {
+            if (from > to) {
+                throw new Exception("The start of the time range must not be after its end.");
+            }
+            if (tickers == null && from == Long.MIN_VALUE && to == Long.MAX_VALUE) {
+                return ALL;
+            }
+            return new LoadOptions(tickers == null ? null : Collections.unmodifiableSet(tickers),
+                    from, to);
+        }
+
+    }
+
+    /***
+     * Returns {@code true} if these options load everything.
+     */
+    public boolean isAll() {
+        return !hasTickerFilter() && !hasTimeRange();
+    }
+
+    public boolean hasTickerFilter() {
+        return tickers != null;
+    }
+
+    public boolean hasTimeRange() {
+        return from != Long.MIN_VALUE || to != Long.MAX_VALUE;
+    }
+
+    /***
+     * Returns the tickers to load or {@code null} if all tickers are loaded.
+     */
+    public Set<String> getTickers() {
+        return tickers;
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    public boolean includesTicker(String ticker) {
+        return tickers == null || tickers.contains(ticker);
+    }
+
+    public boolean includesWindowStart(long windowStart) {
+        return windowStart >= from && windowStart < to;
+    }
+
+    /***
+     * Returns {@code true} if the range {@code [minWindowStart, maxWindowStart]} overlaps with the
+     * time range of these options.
+     */
+    public boolean overlaps(long minWindowStart, long maxWindowStart) {
+        return maxWindowStart >= from && minWindowStart < to;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof LoadOptions)) {
+            return false;
+        }
+        LoadOptions options = (LoadOptions) other;
+        return from == options.from && to == options.to && Objects.equals(tickers, options.tickers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tickers, from, to);
+    }
+
+    @Override
+    public String toString() {
+        return "LoadOptions[tickers=" + (tickers == null ? "all" : tickers) + ", from=" + from
+                + ", to=" + to + "]";
+    }
+
+}
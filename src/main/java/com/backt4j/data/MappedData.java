@@ -0,0 +1,197 @@
+package com.backt4j.data;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+/***
+ * <p>
+ * A {@link ColumnarData} implementation that reads its bars from a memory mapped {@code .b4j} file
+ * (see {@link BinaryCache}).
+ * </p>
+ * 
+ * <p>
+ * {@code init()} accepts a CSV file, a directory of CSV files or a {@code .b4j} file. For CSV
+ * sources the cache file next to the source is used and (re)built whenever it is missing or stale.
+ * Opening a cache file only maps it into memory via {@code FileChannel.map}, so no parsing happens
+ * and the pages are shared through the page cache of the operating system by every JVM reading the
+ * same file.
+ * </p>
+ */
+public class MappedData implements ColumnarData {
+
+    public String Id;
+    public Integer size;
+
+    /***
+     * The mapped columns of every ticker, in the order they are stored in the cache file.
+     */
+    private LinkedHashMap<String, BufferColumns> columns;
+
+    /***
+     * {@code List} views on the columns, created the first time {@code getValues()} is called.
+     */
+    private HashMap<String, List<DataPoint>> values;
+
+    /***
+     * The ids of the tickers and their columns indexed by id.
+     */
+    private SymbolTable symbols;
+    private BufferColumns[] columnsById;
+
+    public MappedData(String IdArg) {
+        Id = IdArg;
+        columns = new LinkedHashMap<>();
+    }
+
+    public MappedData() {
+        // Supply default Id if none is given.
+        Id = "mapped-element-" + (new Timestamp(System.currentTimeMillis())).getTime();
+        columns = new LinkedHashMap<>();
+    }
+
+    /***
+     * Maps the cache file of the given source into memory. The cache file is created first if it
+     * doesn't exist or is stale.
+     * 
+     * @param sourceString The Path to a CSV file, a directory of CSV files or a {@code .b4j} file
+     *        given as String.
+     */
+    @Override
+    public Data init(String sourceString) throws Exception {
+        Path source = Paths.get(sourceString);
+        Path cache;
+        if (sourceString.endsWith(BinaryCache.EXTENSION)) {
+            cache = source;
+        } else {
+            cache = BinaryCache.cachePath(source);
+            if (BinaryCache.isStale(source, cache)) {
+                BinaryCache.write(source, cache);
+            }
+        }
+        open(cache);
+        return this;
+    }
+
+    private void open(Path cache) throws Exception {
+        LinkedHashMap<String, BufferColumns> mappedColumns = new LinkedHashMap<>();
+        int totalSize = 0;
+
+        try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+            ByteBuffer fixedHeader = channel
+                    .map(FileChannel.MapMode.READ_ONLY, 0, BinaryCache.FIXED_HEADER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (fixedHeader.getInt(0) != BinaryCache.MAGIC
+                    || fixedHeader.getInt(4) != BinaryCache.VERSION) {
+                throw new Exception(cache + " is not a valid cache file of this version.");
+            }
+            int headerSize = fixedHeader.getInt(8);
+            int tickerCount = fixedHeader.getInt(12);
+
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, headerSize)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            header.position(BinaryCache.FIXED_HEADER_SIZE);
+            for (int i = 0; i < tickerCount; i++) {
+                byte[] name = new byte[header.getShort()];
+                header.get(name);
+                int length = header.getInt();
+                long offset = header.getLong();
+                String ticker = new String(name, StandardCharsets.UTF_8);
+
+                // Every ticker is mapped on its own, so the file may exceed the 2GB limit of a
+                // single buffer. The mapping stays valid after the channel is closed.
+                ByteBuffer block = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+                        BufferColumns.blockSize(length));
+                mappedColumns.put(ticker, new BufferColumns(ticker, block, length));
+                totalSize += length;
+            }
+        }
+
+        columns = mappedColumns;
+        size = totalSize;
+        values = null;
+        symbols = new SymbolTable(columns.keySet());
+        symbols.freeze();
+        columnsById = columns.values().toArray(new BufferColumns[0]);
+    }
+
+    @Override
+    public String getId() {
+        return Id;
+    }
+
+    /***
+     * Returns the total amount of bars over all tickers.
+     */
+    @Override
+    public Integer size() {
+        return size;
+    }
+
+    @Override
+    public Set<String> getTickers() {
+        return Collections.unmodifiableSet(columns.keySet());
+    }
+
+    @Override
+    public int length(String ticker) {
+        BufferColumns tickerColumns = columns.get(ticker);
+        return tickerColumns == null ? 0 : tickerColumns.length();
+    }
+
+    @Override
+    public SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    @Override
+    public BarCursor cursor(int symbol) {
+        if (symbols == null || symbol < 0 || symbol >= columnsById.length) {
+            return null;
+        }
+        return columnsById[symbol].cursor();
+    }
+
+    @Override
+    public BarCursor cursor(String ticker) {
+        BufferColumns tickerColumns = columns.get(ticker);
+        return tickerColumns == null ? null : tickerColumns.cursor();
+    }
+
+    /***
+     * <p>
+     * Returns read-only {@code List} views on the columns of each ticker.
+     * </p>
+     * 
+     * <p>
+     * The views don't hold a copy of the data, but create a new {@link PriceDataPoint} on every
+     * access. Prefer {@code cursor()} wherever possible.
+     * </p>
+     */
+    @Override
+    public HashMap<String, List<DataPoint>> getValues() throws Exception {
+        if (columns.isEmpty()) {
+            throw new Exception(
+                    "No Data was assigned MappedData Object. Make sure to call init() before trying to access values.");
+        }
+        if (values == null) {
+            HashMap<String, List<DataPoint>> views = new HashMap<>();
+            for (String ticker : columns.keySet()) {
+                views.put(ticker, new BarCursorList(this, ticker));
+            }
+            values = views;
+        }
+        return values;
+    }
+
+}
@@ -0,0 +1,265 @@
+package com.backt4j.data;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+/***
+ * <p>
+ * A {@link ColumnarData} implementation that keeps its bars outside of the Java heap, in one direct
+ * {@link ByteBuffer} per ticker with the layout of {@link BufferColumns}.
+ * </p>
+ *
+ * <p>
+ * The garbage collector only sees a handful of objects per ticker, no matter how many bars are
+ * loaded, so neither the heap size nor the GC pauses grow with the dataset. Files are parsed like
+ * in {@link ColumnarCSVData}, but the columns of every file are moved off the heap as soon as the
+ * file is parsed. The amount of direct memory is limited by {@code -XX:MaxDirectMemorySize}, which
+ * defaults to the maximum heap size.
+ * </p>
+ *
+ * <p>
+ * {@code close()} drops the references to the buffers, but doesn't free the memory itself. A direct
+ * buffer is only freed by a garbage collection after it became unreachable, so the memory stays
+ * allocated until the next collection, and for as long as a {@link BarCursor} created before still
+ * points to it. The instance itself can't be used anymore after {@code close()}.
+ * </p>
+ */
+public class OffHeapData implements ColumnarData, AutoCloseable {
+
+    public String Id;
+    public Integer size;
+
+    /***
+     * The off-heap columns of every ticker, in the order the tickers were encountered.
+     */
+    private LinkedHashMap<String, BufferColumns> columns;
+
+    /***
+     * {@code List} views on the columns, created the first time {@code getValues()} is called.
+     */
+    private HashMap<String, List<DataPoint>> values;
+
+    /***
+     * The ids of the tickers and their columns indexed by id.
+     */
+    private SymbolTable symbols;
+    private BufferColumns[] columnsById;
+
+    private boolean closed;
+
+    public OffHeapData(String IdArg) {
+        Id = IdArg;
+        columns = new LinkedHashMap<>();
+    }
+
+    public OffHeapData() {
+        // Supply default Id if none is given.
+        Id = "off-heap-element-" + (new Timestamp(System.currentTimeMillis())).getTime();
+        columns = new LinkedHashMap<>();
+    }
+
+    @Override
+    public Data init(String fileString) throws Exception {
+        return init(fileString, LoadOptions.all());
+    }
+
+    /***
+     * Parses the CSV File, or all files of a directory, and copies the bars that match the given
+     * {@link LoadOptions} into direct memory. Calling {@code init} again replaces the data.
+     *
+     * @param fileString The Path to the file or directory given as String.
+     * @param options The tickers and time range to load.
+     */
+    @Override
+    public Data init(String fileString, LoadOptions options) throws Exception {
+        checkOpen();
+        Path filePath = Paths.get(fileString);
+
+        List<LinkedHashMap<String, BufferColumns>> parsedFiles;
+        if (filePath.toFile().isFile()) {
+            parsedFiles = List.of(toOffHeap(FlatFileParser.parse(filePath, options)));
+        } else if (filePath.toFile().isDirectory()) {
+            parsedFiles = FlatFiles.parseDirectory(filePath, options, OffHeapData::toOffHeap);
+        } else {
+            throw new Exception("No file or directory found at " + fileString);
+        }
+        columns = concat(parsedFiles);
+
+        int totalSize = 0;
+        for (BufferColumns tickerColumns : columns.values()) {
+            totalSize += tickerColumns.length();
+        }
+        size = totalSize;
+        values = null;
+        symbols = new SymbolTable(columns.keySet());
+        symbols.freeze();
+        columnsById = columns.values().toArray(new BufferColumns[0]);
+        return this;
+    }
+
+    /***
+     * Copies the columns of a parsed file into direct memory, so the on-heap arrays of the file can
+     * be collected right away.
+     */
+    private static LinkedHashMap<String, BufferColumns> toOffHeap(FlatFileParser.Result result) {
+        LinkedHashMap<String, BufferColumns> offHeapColumns = new LinkedHashMap<>();
+        for (PriceColumns tickerColumns : result.columns().values()) {
+            offHeapColumns.put(tickerColumns.getTicker(), allocate(tickerColumns));
+        }
+        return offHeapColumns;
+    }
+
+    private static BufferColumns allocate(PriceColumns tickerColumns) {
+        ByteBuffer block = ByteBuffer
+                .allocateDirect(Math.toIntExact(BufferColumns.blockSize(tickerColumns.length())));
+        BufferColumns.write(tickerColumns, block);
+        return new BufferColumns(tickerColumns.getTicker(), block, tickerColumns.length());
+    }
+
+    /***
+     * Joins the columns of every ticker over all parsed files, in the order of the given List.
+     * Tickers that only appear in one file keep their buffer.
+     */
+    private static LinkedHashMap<String, BufferColumns> concat(
+            List<LinkedHashMap<String, BufferColumns>> parsedFiles) {
+        LinkedHashMap<String, List<BufferColumns>> parts = new LinkedHashMap<>();
+        for (LinkedHashMap<String, BufferColumns> parsedFile : parsedFiles) {
+            for (BufferColumns fileColumns : parsedFile.values()) {
+                parts.computeIfAbsent(fileColumns.getTicker(), ticker -> new ArrayList<>())
+                        .add(fileColumns);
+            }
+        }
+
+        LinkedHashMap<String, BufferColumns> joinedColumns = new LinkedHashMap<>();
+        for (String ticker : parts.keySet()) {
+            List<BufferColumns> tickerParts = parts.get(ticker);
+            if (tickerParts.size() == 1) {
+                joinedColumns.put(ticker, tickerParts.get(0));
+                continue;
+            }
+            int length = 0;
+            for (BufferColumns part : tickerParts) {
+                length += part.length();
+            }
+            ByteBuffer block =
+                    ByteBuffer.allocateDirect(Math.toIntExact(BufferColumns.blockSize(length)));
+            BufferColumns.concat(tickerParts, block);
+            joinedColumns.put(ticker, new BufferColumns(ticker, block, length));
+        }
+        return joinedColumns;
+    }
+
+    /***
+     * Drops the references to the direct buffers of all bars. The memory isn't freed by this call,
+     * but by the next garbage collection once no {@link BarCursor} created before points to the
+     * buffers anymore.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        columns = new LinkedHashMap<>();
+        columnsById = new BufferColumns[0];
+        values = null;
+        size = 0;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("OffHeapData " + Id + " was already closed.");
+        }
+    }
+
+    /***
+     * Returns the amount of direct memory in bytes taken up by the bars of this instance. It is
+     * {@code 0} after {@code close()}, even though the buffers are only freed by a later garbage
+     * collection.
+     */
+    public long offHeapBytes() {
+        return BufferColumns.blockSize(size == null ? 0 : size);
+    }
+
+    @Override
+    public String getId() {
+        return Id;
+    }
+
+    /***
+     * Returns the total amount of bars over all tickers.
+     */
+    @Override
+    public Integer size() {
+        return size;
+    }
+
+    @Override
+    public Set<String> getTickers() {
+        return Collections.unmodifiableSet(columns.keySet());
+    }
+
+    @Override
+    public int length(String ticker) {
+        BufferColumns tickerColumns = columns.get(ticker);
+        return tickerColumns == null ? 0 : tickerColumns.length();
+    }
+
+    @Override
+    public SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    @Override
+    public BarCursor cursor(int symbol) {
+        checkOpen();
+        if (symbols == null || symbol < 0 || symbol >= columnsById.length) {
+            return null;
+        }
+        return columnsById[symbol].cursor();
+    }
+
+    @Override
+    public BarCursor cursor(String ticker) {
+        checkOpen();
+        BufferColumns tickerColumns = columns.get(ticker);
+        return tickerColumns == null ? null : tickerColumns.cursor();
+    }
+
+    /***
+     * <p>
+     * Returns read-only {@code List} views on the columns of each ticker.
+     * </p>
+     *
+     * <p>
+     * The views don't hold a copy of the data, but create a new {@link PriceDataPoint} on every
+     * access. Prefer {@code cursor()} wherever possible.
+     * </p>
+     */
+    @Override
+    public HashMap<String, List<DataPoint>> getValues() throws Exception {
+        checkOpen();
+        if (columns.isEmpty()) {
+            throw new Exception(
+                    "No Data was assigned OffHeapData Object. Make sure to call init() before trying to access values.");
+        }
+        if (values == null) {
+            HashMap<String, List<DataPoint>> views = new HashMap<>();
+            for (String ticker : columns.keySet()) {
+                views.put(ticker, new BarCursorList(this, ticker));
+            }
+            values = views;
+        }
+        return values;
+    }
+
+}
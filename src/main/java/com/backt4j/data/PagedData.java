@@ -0,0 +1,210 @@
+package com.backt4j.data;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/***
+ * <p>
+ * A {@link Data} implementation that reads a directory of Flat Files one file at a time instead of
+ * loading all of them up front.
+ * </p>
+ *
+ * <p>
+ * {@link com.backt4j.core.Exchange} takes the files as pages through {@code pages()}, in the order
+ * of their names. While the bars of a page are consumed, the next file is parsed on a background
+ * thread, and a page is released as soon as the {@code Exchange} moves on. At most two pages are
+ * held in memory at once, no matter how many files the directory contains. As the bars of a page
+ * are handed out before the next page is read, every file must hold later bars than the files
+ * before it, like the day files of Polygon.io.
+ * </p>
+ *
+ * <p>
+ * {@code getValues()} and {@code size()} would have to read every file, which is the very thing
+ * this class avoids, so use {@link ColumnarCSVData} if all bars are needed at once.
+ * </p>
+ */
+public class PagedData implements Data {
+
+    /***
+     * The threads parsing the next page in the background. They don't keep the JVM alive.
+     */
+    private static final ExecutorService PREFETCHERS = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "backt4j-page-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public String Id;
+
+    private Path directory;
+    private List<Path> files;
+    private LoadOptions options;
+
+    public PagedData(String IdArg) {
+        Id = IdArg;
+        files = List.of();
+    }
+
+    public PagedData() {
+        // Supply default Id if none is given.
+        Id = "paged-element-" + (new Timestamp(System.currentTimeMillis())).getTime();
+        files = List.of();
+    }
+
+    @Override
+    public Data init(String fileString) throws Exception {
+        return init(fileString, LoadOptions.all());
+    }
+
+    /***
+     * Lists the files of the directory without reading them. A single file is read as one page.
+     * With a time range given, files that are known to lie outside of it are left out (see
+     * {@link FileIndex}).
+     *
+     * @param fileString The Path to the file or directory given as String.
+     * @param options The tickers and time range to load.
+     */
+    @Override
+    public Data init(String fileString, LoadOptions options) throws Exception {
+        Path filePath = Paths.get(fileString);
+        if (Files.isRegularFile(filePath)) {
+            directory = null;
+            files = List.of(filePath);
+        } else if (Files.isDirectory(filePath)) {
+            directory = filePath;
+            files = FlatFiles.list(filePath);
+            if (options.hasTimeRange()) {
+                FileIndex index = FileIndex.load(filePath);
+                List<Path> overlappingFiles = new ArrayList<>(files.size());
+                for (Path file : files) {
+                    if (index.mayOverlap(file, options)) {
+                        overlappingFiles.add(file);
+                    }
+                }
+                files = overlappingFiles;
+            }
+        } else {
+            throw new Exception("No file or directory found at " + fileString);
+        }
+        this.options = options;
+        return this;
+    }
+
+    /***
+     * Returns the files that are read as pages, in the order they are handed out.
+     */
+    public List<Path> getFiles() {
+        return files;
+    }
+
+    /***
+     * Starts a new pass over all pages. The first page is parsed in the background right away.
+     */
+    public Pages pages() {
+        return new Pages();
+    }
+
+    @Override
+    public String getId() {
+        return Id;
+    }
+
+    /***
+     * Returns {@code null}, as the amount of bars is only known once all pages were read.
+     */
+    @Override
+    public Integer size() {
+        return null;
+    }
+
+    @Override
+    public HashMap<String, List<DataPoint>> getValues() throws Exception {
+        throw new Exception(
+                "PagedData is read page by page through pages(), the values are never held at once.");
+    }
+
+    /***
+     * <p>
+     * A single pass over the pages of {@link PagedData}. Every page is a {@link ColumnarData}
+     * instance with the bars of one file.
+     * </p>
+     *
+     * <p>
+     * Calling {@code next()} hands out the page parsed in the background and starts parsing the
+     * one after it. The caller releases a page by dropping all references to it.
+     * </p>
+     */
+    public final class Pages implements AutoCloseable {
+
+        private final FileIndex index;
+        private int nextFile;
+        private Future<ColumnarData> prefetch;
+
+        private Pages() {
+            index = directory != null && options.hasTimeRange() ? FileIndex.load(directory)
+                    : null;
+            prefetch = submit();
+        }
+
+        private Future<ColumnarData> submit() {
+            if (nextFile >= files.size()) {
+                return null;
+            }
+            Path file = files.get(nextFile++);
+            return PREFETCHERS.submit(() -> {
+                FlatFileParser.Result result = FlatFileParser.parse(file, options);
+                if (index != null) {
+                    index.record(file, result);
+                }
+                return new ColumnarCSVData(Id + "-" + file.getFileName(), result.columns());
+            });
+        }
+
+        public boolean hasNext() {
+            return prefetch != null;
+        }
+
+        /***
+         * Returns the next page, waiting for it to be parsed if necessary.
+         */
+        public ColumnarData next() throws Exception {
+            if (prefetch == null) {
+                throw new Exception("All pages of " + Id + " were already read.");
+            }
+            ColumnarData page;
+            try {
+                page = prefetch.get();
+            } catch (ExecutionException e) {
+                prefetch = null;
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+            prefetch = submit();
+            if (prefetch == null && index != null) {
+                index.save();
+            }
+            return page;
+        }
+
+        /***
+         * Stops parsing the next page, if it is still running.
+         */
+        @Override
+        public void close() {
+            if (prefetch != null) {
+                prefetch.cancel(true);
+                prefetch = null;
+            }
+        }
+
+    }
+
+}
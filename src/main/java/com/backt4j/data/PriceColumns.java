@@ -0,0 +1,262 @@
+package com.backt4j.data;
+
+import java.util.Arrays;
+import java.util.Date;
+
+/***
+ * <p>
+ * The price bars of a single ticker stored column by column in primitive arrays.
+ * </p>
+ * 
+ * <p>
+ * Compared to a {@code List} of {@link PriceDataPoint} records there is no Object per bar, no
+ * {@code String} reference and no {@link Date}. A bar takes up 48 bytes: 8 for window_start, 4 x 8
+ * for open, close, high and low and 2 x 4 for volume and transactions.
+ * </p>
+ * 
+ * <p>
+ * Bars are appended with {@code add()} while the data is loaded. Afterwards the columns are only
+ * read, either by index or through a {@link BarCursor} returned by {@code cursor()}.
+ * </p>
+ */
+public final class PriceColumns {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private final String ticker;
+    private int length;
+
+    private long[] windowStart;
+    private double[] open;
+    private double[] close;
+    private double[] high;
+    private double[] low;
+    private int[] volume;
+    private int[] transactions;
+
+    public PriceColumns(String tickerArg) {
+        this(tickerArg, DEFAULT_CAPACITY);
+    }
+
+    public PriceColumns(String tickerArg, int capacity) {
+        ticker = tickerArg;
+        capacity = Math.max(capacity, 1);
+        windowStart = new long[capacity];
+        open = new double[capacity];
+        close = new double[capacity];
+        high = new double[capacity];
+        low = new double[capacity];
+        volume = new int[capacity];
+        transactions = new int[capacity];
+    }
+
+    /***
+     * Appends a bar. The arguments follow the order of the Polygon.io Flat Files header.
+     */
+    public void add(int volumeArg, double openArg, double closeArg, double highArg, double lowArg,
+            long windowStartArg, int transactionsArg) {
+        if (length == windowStart.length) {
+            grow(length + 1);
+        }
+        windowStart[length] = windowStartArg;
+        open[length] = openArg;
+        close[length] = closeArg;
+        high[length] = highArg;
+        low[length] = lowArg;
+        volume[length] = volumeArg;
+        transactions[length] = transactionsArg;
+        length++;
+    }
+
+    /***
+     * Appends all bars of {@code other} to the end of these columns.
+     */
+    public void addAll(PriceColumns other) {
+        if (length + other.length > windowStart.length) {
+            grow(length + other.length);
+        }
+        System.arraycopy(other.windowStart, 0, windowStart, length, other.length);
+        System.arraycopy(other.open, 0, open, length, other.length);
+        System.arraycopy(other.close, 0, close, length, other.length);
+        System.arraycopy(other.high, 0, high, length, other.length);
+        System.arraycopy(other.low, 0, low, length, other.length);
+        System.arraycopy(other.volume, 0, volume, length, other.length);
+        System.arraycopy(other.transactions, 0, transactions, length, other.length);
+        length += other.length;
+    }
+
+    /***
+     * Shrinks the arrays to the amount of bars actually stored. Should be called once loading is
+     * finished.
+     */
+    public void trimToSize() {
+        if (length < windowStart.length) {
+            resize(length);
+        }
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = windowStart.length;
+        resize(Math.max(minCapacity, capacity + (capacity >> 1)));
+    }
+
+    private void resize(int capacity) {
+        windowStart = Arrays.copyOf(windowStart, capacity);
+        open = Arrays.copyOf(open, capacity);
+        close = Arrays.copyOf(close, capacity);
+        high = Arrays.copyOf(high, capacity);
+        low = Arrays.copyOf(low, capacity);
+        volume = Arrays.copyOf(volume, capacity);
+        transactions = Arrays.copyOf(transactions, capacity);
+    }
+
+    public String getTicker() {
+        return ticker;
+    }
+
+    /***
+     * Returns the amount of bars stored.
+     */
+    public int length() {
+        return length;
+    }
+
+    public long windowStart(int index) {
+        return windowStart[index];
+    }
+
+    public double open(int index) {
+        return open[index];
+    }
+
+    public double close(int index) {
+        return close[index];
+    }
+
+    public double high(int index) {
+        return high[index];
+    }
+
+    public double low(int index) {
+        return low[index];
+    }
+
+    public int volume(int index) {
+        return volume[index];
+    }
+
+    public int transactions(int index) {
+        return transactions[index];
+    }
+
+    /***
+     * Copies the bar with the given index into a new {@link PriceDataPoint}.
+     */
+    public PriceDataPoint toDataPoint(int index) {
+        return new PriceDataPoint(ticker, volume[index], open[index], close[index], high[index],
+                low[index], new Date(windowStart[index]), transactions[index]);
+    }
+
+    /***
+     * Returns a new {@link BarCursor} positioned before the first bar.
+     */
+    public BarCursor cursor() {
+        return new Cursor(this);
+    }
+
+    /***
+     * The {@link BarCursor} over {@link PriceColumns}. It reads straight from the arrays, so
+     * moving it and reading a bar never allocates.
+     */
+    static final class Cursor implements BarCursor {
+
+        private final PriceColumns columns;
+        private int position;
+
+        Cursor(PriceColumns columnsArg) {
+            columns = columnsArg;
+            position = -1;
+        }
+
+        @Override
+        public String ticker() {
+            return columns.ticker;
+        }
+
+        @Override
+        public int length() {
+            return columns.length;
+        }
+
+        @Override
+        public int position() {
+            return position;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position + 1 < columns.length;
+        }
+
+        @Override
+        public boolean next() {
+            if (position + 1 < columns.length) {
+                position++;
+                return true;
+            }
+            position = columns.length;
+            return false;
+        }
+
+        @Override
+        public void seek(int index) {
+            if (index < -1 || index >= columns.length) {
+                throw new IndexOutOfBoundsException(
+                        "Index " + index + " is out of bounds for length " + columns.length);
+            }
+            position = index;
+        }
+
+        @Override
+        public long windowStart() {
+            return columns.windowStart[position];
+        }
+
+        @Override
+        public double open() {
+            return columns.open[position];
+        }
+
+        @Override
+        public double close() {
+            return columns.close[position];
+        }
+
+        @Override
+        public double high() {
+            return columns.high[position];
+        }
+
+        @Override
+        public double low() {
+            return columns.low[position];
+        }
+
+        @Override
+        public int volume() {
+            return columns.volume[position];
+        }
+
+        @Override
+        public int transactions() {
+            return columns.transactions[position];
+        }
+
+        @Override
+        public PriceDataPoint toDataPoint() {
+            return columns.toDataPoint(position);
+        }
+
+    }
+
+}
@@ -19,4 +19,13 @@ import java.util.Date;
  */
 public record PriceDataPoint(String id, int volume, double open, double close, double high,
                 double low, Date window_start, int transactions) implements DataPoint {
+
+    /***
+     * Returns the window_start of the record as the time stamp of the {@link DataPoint}.
+     */
+    @Override
+    public long timeStamp() {
+        return window_start.getTime();
+    }
+
 };
@@ -0,0 +1,210 @@
+package com.backt4j.data;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/***
+ * <p>
+ * A {@link ColumnarData} decorator that resamples the bars of another {@link Data} instance to a
+ * coarser interval, e.g. 1 minute bars to 5 minute, 1 hour or 1 day bars.
+ * </p>
+ *
+ * <p>
+ * Nothing is copied. Each {@link BarCursor} handed out aggregates the bars of the source while it
+ * is moved, so {@link com.backt4j.core.Exchange} streams the coarser bars in a single pass over
+ * the source. The same source can back several {@code ResampledData} instances with different
+ * intervals at once. Bars are assigned to the interval their window_start falls into, counted from
+ * {@code 0}, and a resampled bar carries the window_start of its interval.
+ * </p>
+ *
+ * <p>
+ * The interval is given in the unit of the window_start column of the source, e.g. {@code 300}
+ * for 5 minute bars if window_start holds seconds. Sources that are not {@link ColumnarData} must
+ * hold {@link PriceDataPoint} records sorted by time.
+ * </p>
+ */
+public class ResampledData implements ColumnarData {
+
+    private final Data source;
+    private final long interval;
+
+    /***
+     * The index of the first source bar of every interval per ticker. It is only built when the
+     * length of a ticker is needed or a cursor is moved by {@code seek()}.
+     */
+    private final ConcurrentHashMap<String, int[]> intervalStarts;
+
+    /***
+     * {@code List} views on the resampled bars, created the first time {@code getValues()} is
+     * called.
+     */
+    private HashMap<String, List<DataPoint>> values;
+
+    /***
+     * The ids of the tickers if the source is not {@link ColumnarData}.
+     */
+    private SymbolTable symbols;
+
+    /***
+     * @param sourceArg The bars to resample.
+     * @param intervalArg The length of the resampled bars in the unit of window_start.
+     */
+    public ResampledData(Data sourceArg, long intervalArg) throws Exception {
+        if (intervalArg <= 0) {
+            throw new Exception("The interval must be positive but was " + intervalArg);
+        }
+        source = sourceArg;
+        interval = intervalArg;
+        intervalStarts = new ConcurrentHashMap<>();
+    }
+
+    /***
+     * Initializes the source with the given path. The resampled bars follow the new data.
+     */
+    @Override
+    public Data init(String path) throws Exception {
+        source.init(path);
+        reset();
+        return this;
+    }
+
+    @Override
+    public Data init(String path, LoadOptions options) throws Exception {
+        source.init(path, options);
+        reset();
+        return this;
+    }
+
+    private void reset() {
+        intervalStarts.clear();
+        values = null;
+        symbols = null;
+    }
+
+    public Data getSource() {
+        return source;
+    }
+
+    public long getInterval() {
+        return interval;
+    }
+
+    @Override
+    public String getId() {
+        return source.getId() + "-" + interval;
+    }
+
+    /***
+     * Returns the total amount of resampled bars over all tickers.
+     */
+    @Override
+    public Integer size() {
+        int totalSize = 0;
+        for (String ticker : getTickers()) {
+            totalSize += length(ticker);
+        }
+        return totalSize;
+    }
+
+    @Override
+    public Set<String> getTickers() {
+        if (source instanceof ColumnarData columnarSource) {
+            return columnarSource.getTickers();
+        }
+        return Collections.unmodifiableSet(sourceValues().keySet());
+    }
+
+    @Override
+    public int length(String ticker) {
+        if (sourceCursor(ticker) == null) {
+            return 0;
+        }
+        return intervalStarts(ticker).length;
+    }
+
+    @Override
+    public SymbolTable getSymbols() {
+        if (source instanceof ColumnarData columnarSource) {
+            return columnarSource.getSymbols();
+        }
+        if (symbols == null) {
+            SymbolTable sourceSymbols = new SymbolTable(sourceValues().keySet());
+            sourceSymbols.freeze();
+            symbols = sourceSymbols;
+        }
+        return symbols;
+    }
+
+    @Override
+    public BarCursor cursor(String ticker) {
+        BarCursor sourceCursor = sourceCursor(ticker);
+        return sourceCursor == null ? null : new ResamplingCursor(this, sourceCursor, interval);
+    }
+
+    private BarCursor sourceCursor(String ticker) {
+        if (source instanceof ColumnarData columnarSource) {
+            return columnarSource.cursor(ticker);
+        }
+        List<DataPoint> dataPoints = sourceValues().get(ticker);
+        return dataPoints == null ? null : new DataPointCursor(ticker, dataPoints);
+    }
+
+    private HashMap<String, List<DataPoint>> sourceValues() {
+        try {
+            return source.getValues();
+        } catch (Exception e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    /***
+     * Returns the index of the first source bar of every interval of the given ticker, scanning
+     * the window_start column of the source the first time it is called.
+     */
+    int[] intervalStarts(String ticker) {
+        return intervalStarts.computeIfAbsent(ticker, key -> {
+            BarCursor bars = sourceCursor(key);
+            int[] starts = new int[16];
+            int count = 0;
+            long currentStart = 0;
+            while (bars.next()) {
+                long start = ResamplingCursor.intervalStart(bars.windowStart(), interval);
+                if (count == 0 || start != currentStart) {
+                    if (count == starts.length) {
+                        starts = Arrays.copyOf(starts, count * 2);
+                    }
+                    starts[count++] = bars.position();
+                    currentStart = start;
+                }
+            }
+            return Arrays.copyOf(starts, count);
+        });
+    }
+
+    /***
+     * <p>
+     * Returns read-only {@code List} views on the resampled bars of each ticker.
+     * </p>
+     *
+     * <p>
+     * The views aggregate the bars of the source on every access. Prefer {@code cursor()} wherever
+     * possible.
+     * </p>
+     */
+    @Override
+    public HashMap<String, List<DataPoint>> getValues() throws Exception {
+        if (values == null) {
+            HashMap<String, List<DataPoint>> views = new HashMap<>();
+            for (String ticker : getTickers()) {
+                views.put(ticker, new BarCursorList(this, ticker));
+            }
+            values = views;
+        }
+        return values;
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.backt4j.data;
+
+/***
+ * <p>
+ * A {@link BarCursor} that aggregates the bars of another cursor into coarser bars while it is
+ * moved, see {@link ResampledData}.
+ * </p>
+ *
+ * <p>
+ * {@code next()} consumes all source bars of the following interval and keeps only their
+ * aggregate: the open of the first bar, the highest high, the lowest low, the close of the last bar
+ * and the sums of volume and transactions. The sums are capped at {@code Integer.MAX_VALUE}.
+ * </p>
+ */
+final class ResamplingCursor implements BarCursor {
+
+    private final ResampledData data;
+    private final BarCursor source;
+    private final long interval;
+
+    private int position;
+    private boolean exhausted;
+
+    private long windowStart;
+    private double open;
+    private double close;
+    private double high;
+    private double low;
+    private int volume;
+    private int transactions;
+
+    ResamplingCursor(ResampledData dataArg, BarCursor sourceArg, long intervalArg) {
+        data = dataArg;
+        source = sourceArg;
+        interval = intervalArg;
+        position = -1;
+    }
+
+    /***
+     * Returns the start of the interval the given window_start falls into.
+     */
+    static long intervalStart(long windowStart, long interval) {
+        return Math.floorDiv(windowStart, interval) * interval;
+    }
+
+    @Override
+    public String ticker() {
+        return source.ticker();
+    }
+
+    /***
+     * Returns the amount of resampled bars. The first call scans the window_start column of the
+     * source once.
+     */
+    @Override
+    public int length() {
+        return data.intervalStarts(source.ticker()).length;
+    }
+
+    @Override
+    public int position() {
+        return position;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return source.hasNext();
+    }
+
+    @Override
+    public boolean next() {
+        if (exhausted) {
+            return false;
+        }
+        if (!source.hasNext()) {
+            // Like the other cursors, an exhausted cursor points behind the last bar.
+            position++;
+            exhausted = true;
+            return false;
+        }
+
+        source.next();
+        long start = intervalStart(source.windowStart(), interval);
+        windowStart = start;
+        open = source.open();
+        close = source.close();
+        high = source.high();
+        low = source.low();
+        long volumeSum = source.volume();
+        long transactionsSum = source.transactions();
+
+        while (source.hasNext()) {
+            source.next();
+            if (intervalStart(source.windowStart(), interval) != start) {
+                // The bar belongs to the next interval, so step back to leave it for the next call.
+                source.seek(source.position() - 1);
+                break;
+            }
+            close = source.close();
+            high = Math.max(high, source.high());
+            low = Math.min(low, source.low());
+            volumeSum += source.volume();
+            transactionsSum += source.transactions();
+        }
+
+        volume = (int) Math.min(volumeSum, Integer.MAX_VALUE);
+        transactions = (int) Math.min(transactionsSum, Integer.MAX_VALUE);
+        position++;
+        return true;
+    }
+
+    /***
+     * Moves the cursor to the resampled bar with the given index. The first call scans the
+     * window_start column of the source once to find the first source bar of every interval.
+     */
+    @Override
+    public void seek(int index) {
+        int[] starts = data.intervalStarts(source.ticker());
+        if (index < -1 || index >= starts.length) {
+            throw new IndexOutOfBoundsException(
+                    "Index " + index + " is out of bounds for length " + starts.length);
+        }
+        exhausted = false;
+        if (index == -1) {
+            source.seek(-1);
+            position = -1;
+            return;
+        }
+        source.seek(starts[index] - 1);
+        position = index - 1;
+        next();
+    }
+
+    @Override
+    public long windowStart() {
+        return windowStart;
+    }
+
+    @Override
+    public double open() {
+        return open;
+    }
+
+    @Override
+    public double close() {
+        return close;
+    }
+
+    @Override
+    public double high() {
+        return high;
+    }
+
+    @Override
+    public double low() {
+        return low;
+    }
+
+    @Override
+    public int volume() {
+        return volume;
+    }
+
+    @Override
+    public int transactions() {
+        return transactions;
+    }
+
+}
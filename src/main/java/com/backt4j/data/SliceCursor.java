@@ -0,0 +1,103 @@
+package com.backt4j.data;
+
+/***
+ * A {@link BarCursor} over a range of the bars of another cursor, see {@link SlicedData}. Its
+ * indices start at {@code 0} for the first bar of the range.
+ */
+final class SliceCursor implements BarCursor {
+
+    private final BarCursor source;
+    private final int first;
+    private final int length;
+    private int position;
+
+    /***
+     * @param sourceArg The cursor over all bars of the ticker, positioned before the first bar.
+     * @param firstArg The index of the first bar of the range in the source.
+     * @param endArg The index after the last bar of the range in the source.
+     */
+    SliceCursor(BarCursor sourceArg, int firstArg, int endArg) {
+        source = sourceArg;
+        first = firstArg;
+        length = endArg - firstArg;
+        position = -1;
+        source.seek(first - 1);
+    }
+
+    @Override
+    public String ticker() {
+        return source.ticker();
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public int position() {
+        return position;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return position + 1 < length;
+    }
+
+    @Override
+    public boolean next() {
+        if (position + 1 >= length) {
+            // Like the other cursors, an exhausted cursor points behind the last bar.
+            position = length;
+            return false;
+        }
+        position++;
+        return source.next();
+    }
+
+    @Override
+    public void seek(int index) {
+        if (index < -1 || index >= length) {
+            throw new IndexOutOfBoundsException(
+                    "Index " + index + " is out of bounds for length " + length);
+        }
+        position = index;
+        source.seek(first + index);
+    }
+
+    @Override
+    public long windowStart() {
+        return source.windowStart();
+    }
+
+    @Override
+    public double open() {
+        return source.open();
+    }
+
+    @Override
+    public double close() {
+        return source.close();
+    }
+
+    @Override
+    public double high() {
+        return source.high();
+    }
+
+    @Override
+    public double low() {
+        return source.low();
+    }
+
+    @Override
+    public int volume() {
+        return source.volume();
+    }
+
+    @Override
+    public int transactions() {
+        return source.transactions();
+    }
+
+}
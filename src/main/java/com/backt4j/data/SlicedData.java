@@ -0,0 +1,166 @@
+package com.backt4j.data;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/***
+ * <p>
+ * A {@link ColumnarData} view on the bars of another {@link ColumnarData} instance whose
+ * window_start lies within a time range, e.g. the training or test window of a walk-forward
+ * analysis.
+ * </p>
+ *
+ * <p>
+ * Nothing is copied. The range is resolved to an index range per ticker by a binary search over
+ * the window_start column the first time the ticker is used, and the cursors handed out run over
+ * that index range of the source. Any amount of slices can share one source at once. The bars of
+ * every ticker must be sorted by window_start, as they are for all {@link ColumnarData}
+ * implementations.
+ * </p>
+ */
+public class SlicedData implements ColumnarData {
+
+    private final ColumnarData source;
+    private final long from;
+    private final long to;
+
+    /***
+     * The index of the first bar in the range and the index after the last one per ticker.
+     */
+    private final ConcurrentHashMap<String, int[]> ranges;
+
+    private HashMap<String, List<DataPoint>> values;
+
+    /***
+     * @param sourceArg The bars to slice.
+     * @param fromArg The first window_start in the slice.
+     * @param toArg The window_start after the slice, exclusive.
+     */
+    public SlicedData(ColumnarData sourceArg, long fromArg, long toArg) throws Exception {
+        if (toArg < fromArg) {
+            throw new Exception("The slice must not end before it starts, but was " + fromArg
+                    + " to " + toArg);
+        }
+        source = sourceArg;
+        from = fromArg;
+        to = toArg;
+        ranges = new ConcurrentHashMap<>();
+    }
+
+    /***
+     * Throws, as a slice is a view on initialized data.
+     */
+    @Override
+    public Data init(String path) throws Exception {
+        throw new Exception(
+                "SlicedData " + getId() + " is a view, initialize its source instead.");
+    }
+
+    @Override
+    public Data init(String path, LoadOptions options) throws Exception {
+        return init(path);
+    }
+
+    public ColumnarData getSource() {
+        return source;
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    @Override
+    public String getId() {
+        return source.getId() + "-" + from + "-" + to;
+    }
+
+    /***
+     * Returns the total amount of bars in the slice over all tickers.
+     */
+    @Override
+    public Integer size() {
+        int totalSize = 0;
+        for (String ticker : getTickers()) {
+            totalSize += length(ticker);
+        }
+        return totalSize;
+    }
+
+    /***
+     * Returns the tickers of the source, including the ones without bars in the slice, so the
+     * slice shares the {@link SymbolTable} of its source.
+     */
+    @Override
+    public Set<String> getTickers() {
+        return source.getTickers();
+    }
+
+    @Override
+    public SymbolTable getSymbols() {
+        return source.getSymbols();
+    }
+
+    @Override
+    public int length(String ticker) {
+        int[] range = range(ticker);
+        return range == null ? 0 : range[1] - range[0];
+    }
+
+    @Override
+    public BarCursor cursor(String ticker) {
+        int[] range = range(ticker);
+        return range == null ? null : new SliceCursor(source.cursor(ticker), range[0], range[1]);
+    }
+
+    private int[] range(String ticker) {
+        if (!source.getTickers().contains(ticker)) {
+            return null;
+        }
+        return ranges.computeIfAbsent(ticker, key -> {
+            BarCursor bars = source.cursor(key);
+            return new int[] {firstAtOrAfter(bars, from), firstAtOrAfter(bars, to)};
+        });
+    }
+
+    /***
+     * Returns the index of the first bar with a window_start of at least {@code timeStamp}, or the
+     * length of the cursor if there is none.
+     */
+    private static int firstAtOrAfter(BarCursor bars, long timeStamp) {
+        int low = 0;
+        int high = bars.length();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            bars.seek(middle);
+            if (bars.windowStart() < timeStamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /***
+     * Returns read-only {@code List} views on the bars of each ticker in the slice. Prefer
+     * {@code cursor()} wherever possible.
+     */
+    @Override
+    public HashMap<String, List<DataPoint>> getValues() throws Exception {
+        if (values == null) {
+            HashMap<String, List<DataPoint>> views = new HashMap<>();
+            for (String ticker : getTickers()) {
+                views.put(ticker, new BarCursorList(this, ticker));
+            }
+            values = views;
+        }
+        return values;
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.backt4j.data;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+
+/***
+ * <p>
+ * Assigns dense {@code int} ids to tickers, starting at {@code 0} in the order the tickers are
+ * added.
+ * </p>
+ * 
+ * <p>
+ * The ids allow to keep the state of every ticker in plain arrays indexed by the id, so a ticker
+ * only has to be hashed once when it is first encountered. {@link ColumnarData} implementations
+ * assign the ids while loading, {@link com.backt4j.core.Exchange} copies their table and adds
+ * tickers traded by a {@link com.backt4j.strategy.Strategy} without data.
+ * </p>
+ * 
+ * <p>
+ * The table of a {@link ColumnarData} instance is frozen after loading, so it can be shared by
+ * multiple threads. Adding a ticker to a frozen table throws an
+ * {@link UnsupportedOperationException}.
+ * </p>
+ */
+public final class SymbolTable {
+
+    /***
+     * Returned by {@code idOf} for unknown tickers.
+     */
+    public static final int UNKNOWN = -1;
+
+    private final HashMap<String, Integer> ids;
+    private String[] symbols;
+    private int size;
+    private boolean frozen;
+
+    public SymbolTable() {
+        ids = new HashMap<>();
+        symbols = new String[16];
+    }
+
+    /***
+     * Creates a table with the given tickers, which receive the ids {@code 0} to
+     * {@code tickers.size() - 1} in iteration order.
+     */
+    public SymbolTable(Collection<String> tickers) {
+        this();
+        for (String ticker : tickers) {
+            intern(ticker);
+        }
+    }
+
+    /***
+     * Creates a modifiable copy of {@code other}. All tickers keep their ids.
+     */
+    public SymbolTable(SymbolTable other) {
+        ids = new HashMap<>(other.ids);
+        symbols = Arrays.copyOf(other.symbols, Math.max(other.symbols.length, 16));
+        size = other.size;
+    }
+
+    /***
+     * Returns the id of the ticker and assigns the next free id if the ticker is unknown.
+     */
+    public int intern(String ticker) {
+        Integer id = ids.get(ticker);
+        if (id != null) {
+            return id;
+        }
+        if (frozen) {
+            throw new UnsupportedOperationException(
+                    "The SymbolTable is frozen and " + ticker + " can't be added.");
+        }
+        if (size == symbols.length) {
+            symbols = Arrays.copyOf(symbols, size * 2);
+        }
+        symbols[size] = ticker;
+        ids.put(ticker, size);
+        return size++;
+    }
+
+    /***
+     * Returns the id of the ticker or {@link #UNKNOWN}.
+     */
+    public int idOf(String ticker) {
+        Integer id = ids.get(ticker);
+        return id == null ? UNKNOWN : id;
+    }
+
+    /***
+     * Returns the ticker with the given id.
+     */
+    public String symbol(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Unknown symbol id " + id);
+        }
+        return symbols[id];
+    }
+
+    /***
+     * Returns the amount of tickers, which is also the smallest id not assigned yet.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /***
+     * Prevents any further tickers from being added.
+     */
+    void freeze() {
+        frozen = true;
+    }
+
+}
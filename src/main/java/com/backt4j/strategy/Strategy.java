@@ -1,7 +1,9 @@
 package com.backt4j.strategy;
 
 import com.backt4j.data.DataPoint;
+import com.backt4j.core.BarSnapshot;
 import com.backt4j.core.Connection;
+import com.backt4j.core.Exchange;
 
 /***
  * <p>
@@ -18,6 +20,26 @@ public interface Strategy {
 
     public void handleNewPrice(DataPoint dataPoint);
 
+    /***
+     * <p>
+     * Receives the bars of all assets an {@link Exchange} hands out for one point in time at once.
+     * {@link com.backt4j.core.Backtest} calls it once per point in time and {@link Exchange}.
+     * </p>
+     * <p>
+     * The default implementation passes the {@link DataPoint} of every asset to
+     * {@code handleNewPrice}. Strategies that look at the whole cross-section, or want to read the
+     * bars without creating {@link DataPoint} instances, should override it. The snapshot is reused
+     * by the {@link Exchange} and must not be kept.
+     * </p>
+     * 
+     * @param bars The bars of all assets with data at {@code bars.timeStamp()}.
+     */
+    public default void handleNewBar(BarSnapshot bars) {
+        for (int i = 0; i < bars.size(); i++) {
+            handleNewPrice(bars.dataPoint(i));
+        }
+    }
+
     public void addConnection(Connection connection);
 
 }
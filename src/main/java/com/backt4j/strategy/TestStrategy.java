@@ -3,7 +3,9 @@ package com.backt4j.strategy;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.backt4j.core.BarSnapshot;
 import com.backt4j.core.Connection;
+import com.backt4j.core.PositionBook;
 import com.backt4j.core.StockExchange;
 import com.backt4j.data.DataPoint;
 import com.backt4j.data.PriceDataPoint;
@@ -37,31 +39,42 @@ public class TestStrategy implements Strategy {
     @Override
     public void handleNewPrice(DataPoint dataPoint) {
         PriceDataPoint priceDataPoint = (PriceDataPoint) dataPoint;
-        Double price = priceDataPoint.open();
         StockExchange stockExchange = (StockExchange) connections.get(0).getExchanges().get(0);
-        if (price < buyThreshold
-                && (stockExchange.getOpenPositions().get(priceDataPoint.id()) == null
-                        || stockExchange.getOpenPositions().get(priceDataPoint.id()).isEmpty())) {
-            int success = stockExchange.marketOrder(priceDataPoint.id(), 100, priceDataPoint.open(),
-                    priceDataPoint.window_start().getTime());
+        handle(stockExchange, stockExchange.symbolOf(priceDataPoint.id()), priceDataPoint.open(),
+                priceDataPoint.window_start().getTime());
+    }
+
+    /***
+     * Reads the open prices straight from the snapshot, so no {@link DataPoint} is created for
+     * columnar data.
+     */
+    @Override
+    public void handleNewBar(BarSnapshot bars) {
+        StockExchange stockExchange = (StockExchange) bars.exchange();
+        for (int i = 0; i < bars.size(); i++) {
+            handle(stockExchange, bars.symbol(i), bars.open(i), bars.timeStamp());
+        }
+    }
+
+    private void handle(StockExchange stockExchange, int symbol, double price, long timeStamp) {
+        PositionBook book = stockExchange.getPositionBook();
+        if (price < buyThreshold && book.lots(symbol) == 0) {
+            int success = stockExchange.marketOrder(symbol, 100, price, timeStamp);
             if (success == 1) {
-                System.out.println("marketOrder failed with: " + " " + priceDataPoint.id() + " "
-                        + 100.0 + " " + priceDataPoint.open() + " "
-                        + priceDataPoint.window_start().getTime());
+                System.out.println("marketOrder failed with: " + " "
+                        + stockExchange.getSymbols().symbol(symbol) + " " + 100.0 + " " + price
+                        + " " + timeStamp);
             }
         }
 
-        List<String> openPositionkeys = new ArrayList<>(stockExchange.getOpenPositions().keySet());
-        for (String key : openPositionkeys) {
-            if (!stockExchange.getOpenPositions().get(key).isEmpty()
-                    && key.equals(priceDataPoint.id())) {
-                Double buyIn = stockExchange.getOpenPositions().get(key).getFirst().price();
-
-                if (((price - buyIn) / buyIn) >= performanceThreshold) {
-                    stockExchange.marketClearPosition(key);
-                } else if (((price - buyIn) / buyIn) < 0) {
-                    stockExchange.marketClearPosition(key);
-                }
+        if (book.lots(symbol) > 0) {
+            // The price of the newest lot.
+            double buyIn = book.price(symbol, book.lots(symbol) - 1);
+
+            if (((price - buyIn) / buyIn) >= performanceThreshold) {
+                stockExchange.marketClearPosition(symbol);
+            } else if (((price - buyIn) / buyIn) < 0) {
+                stockExchange.marketClearPosition(symbol);
             }
         }
     }
@@ -1,8 +1,16 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.jupiter.api.Test;
 
 import com.backt4j.core.Backtest;
+import com.backt4j.core.Connection;
+import com.backt4j.core.Result;
 import com.backt4j.core.StockExchange;
 import com.backt4j.data.CSVData;
 import com.backt4j.strategy.TestStrategy;
@@ -21,4 +29,46 @@ public class AppTest {
         backtest.run();
     }
 
+    @Test
+    public void parallelConnectionsMatchSequentialRun() throws Exception {
+        String testData = new File("src/test/resources").getAbsolutePath() + "/testdata.csv";
+        List<Result> expected = run(testData, null);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Result> results = run(testData, executor);
+            assertEquals(expected.size(), results.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getAbsPerformance(), results.get(i).getAbsPerformance());
+                assertEquals(expected.get(i).getVolatility(), results.get(i).getVolatility());
+            }
+
+            // Connections sharing an Exchange can't run at the same time.
+            StockExchange shared = new StockExchange(1_000_000, new CSVData().init(testData));
+            List<Connection> connections = List.of(
+                    new Connection(shared, new TestStrategy(1000.0, 0.01)),
+                    new Connection(shared, new TestStrategy(1000.0, 0.02)));
+            Backtest backtest = new Backtest.Builder().addConnections(connections)
+                    .parallel(executor).build();
+            assertThrows(Exception.class, backtest::run);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static List<Result> run(String testData, ExecutorService executor) throws Exception {
+        List<Connection> connections = new ArrayList<>();
+        for (int i = 1; i <= 8; i++) {
+            StockExchange exchange = new StockExchange(1_000_000, new CSVData().init(testData));
+            connections.add(new Connection(exchange, new TestStrategy(1000.0, 0.005 * i)));
+        }
+        Backtest.Builder builder = new Backtest.Builder().addConnections(connections);
+        if (executor != null) {
+            builder.parallel(executor);
+        }
+        Backtest backtest = builder.build();
+        backtest.run();
+        return backtest.getResults();
+    }
+
 }
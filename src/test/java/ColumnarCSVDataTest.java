@@ -0,0 +1,95 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.backt4j.core.Backtest;
+import com.backt4j.core.StockExchange;
+import com.backt4j.data.BarCursor;
+import com.backt4j.data.CSVData;
+import com.backt4j.data.ColumnarCSVData;
+import com.backt4j.data.DataPoint;
+import com.backt4j.data.PriceDataPoint;
+import com.backt4j.strategy.TestStrategy;
+
+public class ColumnarCSVDataTest {
+
+        private static final String TEST_DATA =
+                        new File("src/test/resources").getAbsolutePath() + "/testdata.csv";
+
+        @Test
+        public void columnsMatchCSVData() throws Exception {
+                CSVData csvData = (CSVData) new CSVData().init(TEST_DATA);
+                ColumnarCSVData columnarData = (ColumnarCSVData) new ColumnarCSVData().init(TEST_DATA);
+
+                assertEquals(csvData.getValues().keySet(), columnarData.getTickers());
+                assertEquals(25, columnarData.size());
+
+                // The List views must yield the same records as CSVData.
+                for (String ticker : columnarData.getTickers()) {
+                        List<DataPoint> expected = csvData.getValues().get(ticker);
+                        assertEquals(expected, columnarData.getValues().get(ticker));
+                }
+
+                // Walk the cursor over all bars of a ticker.
+                BarCursor cursor = columnarData.cursor("AAPL");
+                assertEquals(-1, cursor.position());
+                assertTrue(cursor.next());
+                assertEquals(172.45, cursor.open());
+                assertEquals(1727791800L, cursor.windowStart());
+                assertEquals(1253400, cursor.volume());
+                int bars = 1;
+                while (cursor.next()) {
+                        bars++;
+                }
+                assertEquals(5, bars);
+                assertFalse(cursor.hasNext());
+
+                cursor.seek(2);
+                assertEquals(173.60, cursor.open());
+                assertEquals(389, cursor.transactions());
+        }
+
+        @Test
+        public void backtestMatchesCSVData() throws Exception {
+                StockExchange csvExchange = new StockExchange(1_000_000, new CSVData().init(TEST_DATA));
+                new Backtest.Builder().add(csvExchange).add(new TestStrategy(1000.0, 0.01)).build()
+                                .run();
+
+                StockExchange columnarExchange =
+                                new StockExchange(1_000_000, new ColumnarCSVData().init(TEST_DATA));
+                new Backtest.Builder().add(columnarExchange).add(new TestStrategy(1000.0, 0.01))
+                                .build().run();
+
+                // The assets of a tick are handed to the strategy in the order of the data, which
+                // differs between both implementations, so the sums may differ in the last digits.
+                assertEquals(csvExchange.getResult().getAbsPerformance(),
+                                columnarExchange.getResult().getAbsPerformance(), 1e-9);
+                assertEquals(csvExchange.getResult().getVolatility(),
+                                columnarExchange.getResult().getVolatility(), 1e-12);
+        }
+
+        @Test
+        public void directoriesAreMergedInFileOrder(@TempDir Path tempDir) throws Exception {
+                // The second day is written first, so the walk order differs from the name order.
+                TestData.writeTwoDays(tempDir);
+
+                CSVData csvData = (CSVData) new CSVData().init(tempDir.toString());
+                ColumnarCSVData columnarData =
+                                (ColumnarCSVData) new ColumnarCSVData().init(tempDir.toString());
+
+                for (String ticker : columnarData.getTickers()) {
+                        List<DataPoint> records = csvData.getValues().get(ticker);
+                        assertEquals(10, records.size());
+                        assertEquals(records, columnarData.getValues().get(ticker));
+                        for (int i = 1; i < records.size(); i++) {
+                                assertTrue(((PriceDataPoint) records.get(i - 1)).window_start()
+                                                .before(((PriceDataPoint) records.get(i)).window_start()));
+                        }
+                }
+        }
+
+}
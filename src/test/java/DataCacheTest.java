@@ -0,0 +1,79 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.backt4j.data.CSVData;
+import com.backt4j.data.ColumnarCSVData;
+import com.backt4j.data.ColumnarData;
+import com.backt4j.data.Data;
+import com.backt4j.data.DataCache;
+
+public class DataCacheTest {
+
+        private static final String TEST_DATA =
+                        new File("src/test/resources").getAbsolutePath() + "/testdata.csv";
+
+        @Test
+        public void entriesAreSharedAndReloadedOnChange(@TempDir Path tempDir) throws Exception {
+                Path file = tempDir.resolve("data.csv");
+                Files.copy(Path.of(TEST_DATA), file);
+                DataCache cache = new DataCache(1 << 20);
+
+                Data first = cache.get(file.toString(), ColumnarCSVData.class);
+                Data second = cache.get(file.toString(), ColumnarCSVData.class);
+                assertSame(first, second);
+                assertTrue(first instanceof ColumnarData);
+                assertEquals(1, cache.getHits());
+                assertEquals(1, cache.getMisses());
+                assertEquals(25L * 48, cache.getBytes());
+
+                // Another implementation is a separate entry.
+                Data records = cache.get(file.toString(), CSVData.class);
+                assertNotSame(first, records);
+                assertEquals(2, cache.getEntryCount());
+
+                // The views are read-only.
+                assertThrows(Exception.class, () -> first.init(TEST_DATA));
+                assertThrows(UnsupportedOperationException.class,
+                                () -> records.getValues().get("AAPL").clear());
+                assertThrows(UnsupportedOperationException.class,
+                                () -> records.getValues().remove("AAPL"));
+                assertSame(records.getValues(), records.getValues());
+
+                // A changed file replaces the stale entry.
+                Files.writeString(file, "\nAAPL,1,1.0,1.0,1.0,1.0,1727810000,1",
+                                StandardOpenOption.APPEND);
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+                Data reloaded = cache.get(file.toString(), ColumnarCSVData.class);
+                assertNotSame(first, reloaded);
+                assertEquals(26, reloaded.size());
+                assertEquals(2, cache.getEntryCount());
+        }
+
+        @Test
+        public void leastRecentlyUsedEntriesAreEvicted(@TempDir Path tempDir) throws Exception {
+                Files.copy(Path.of(TEST_DATA), tempDir.resolve("a.csv"));
+                Files.copy(Path.of(TEST_DATA), tempDir.resolve("b.csv"));
+                // Room for two columnar copies of the test data.
+                DataCache cache = new DataCache(2 * 25 * 48);
+
+                Data a = cache.get(tempDir.resolve("a.csv").toString(), ColumnarCSVData.class);
+                cache.get(tempDir.resolve("b.csv").toString(), ColumnarCSVData.class);
+                cache.get(tempDir.resolve("a.csv").toString(), ColumnarCSVData.class);
+                // Loading a third file evicts b, which was used least recently.
+                cache.get(TEST_DATA, ColumnarCSVData.class);
+
+                assertEquals(1, cache.getEvictions());
+                assertEquals(2, cache.getEntryCount());
+                assertSame(a, cache.get(tempDir.resolve("a.csv").toString(), ColumnarCSVData.class));
+        }
+
+}
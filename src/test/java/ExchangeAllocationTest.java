@@ -0,0 +1,75 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.backt4j.core.BarSnapshot;
+import com.backt4j.core.StockExchange;
+import com.backt4j.data.ColumnarCSVData;
+
+public class ExchangeAllocationTest {
+
+        private static final int BARS = 30_000;
+
+        @Test
+        public void advanceDoesNotAllocate(@TempDir Path tempDir) throws Exception {
+                StringBuilder csv = new StringBuilder(
+                                "ticker,volume,open,close,high,low,window_start,transactions\n");
+                for (String ticker : new String[] {"AAPL", "MSFT", "GOOGL", "AMZN"}) {
+                        for (int i = 0; i < BARS; i++) {
+                                double price = 100 + (i % 100) / 10.0;
+                                csv.append(ticker).append(',').append(1000 + i).append(',')
+                                                .append(price).append(',').append(price).append(',')
+                                                .append(price + 1).append(',').append(price - 1)
+                                                .append(',').append(1727791800L + 60L * i).append(",10\n");
+                        }
+                }
+                Path file = tempDir.resolve("bars.csv");
+                Files.writeString(file, csv);
+
+                StockExchange exchange = new StockExchange(1_000_000,
+                                new ColumnarCSVData().init(file.toString()));
+                exchange.setKeepPerformanceSeries(true);
+                exchange.reservePerformance(BARS);
+                exchange.advance();
+                exchange.marketOrder("AAPL", 100, 100.0, 0);
+                exchange.marketOrder("AAPL", 100, 101.0, 0);
+                exchange.marketOrder("MSFT", -50, 105.0, 0);
+
+                // Let the JIT compile the loop before measuring.
+                for (int i = 1; i < BARS / 2; i++) {
+                        exchange.advance();
+                }
+
+                com.sun.management.ThreadMXBean threads =
+                                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+                // The JIT may allocate once while it recompiles a method, so the loop is measured in
+                // several rounds. A steady state without allocations shows up as a round with none.
+                long minAllocated = Long.MAX_VALUE;
+                double checksum = 0;
+                for (int round = 0; round < 5; round++) {
+                        long before = threads.getCurrentThreadAllocatedBytes();
+                        for (int i = 0; i < BARS / 10; i++) {
+                                BarSnapshot bars = exchange.advance();
+                                for (int j = 0; j < bars.size(); j++) {
+                                        checksum += bars.bar(j).close();
+                                }
+                        }
+                        minAllocated = Math.min(minAllocated,
+                                        threads.getCurrentThreadAllocatedBytes() - before);
+                }
+                // Consume the remaining bars.
+                while (!exchange.advance().isEmpty()) {
+                        continue;
+                }
+
+                assertFalse(checksum == 0);
+                assertFalse(exchange.getCurrentPortfolioValue() == 0);
+                assertEquals(0, minAllocated);
+                assertEquals(BARS, exchange.getPerformanceCount());
+        }
+
+}
@@ -0,0 +1,164 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.backt4j.core.Backtest;
+import com.backt4j.core.BarSnapshot;
+import com.backt4j.core.Connection;
+import com.backt4j.core.StockExchange;
+import com.backt4j.data.CSVData;
+import com.backt4j.data.ColumnarCSVData;
+import com.backt4j.data.Data;
+import com.backt4j.data.DataPoint;
+import com.backt4j.data.PriceDataPoint;
+import com.backt4j.strategy.Strategy;
+
+public class ExchangeTest {
+
+        @TempDir
+        Path tempDir;
+
+        @Test
+        public void sparseTickersAreMergedByTime() throws Exception {
+                // MSFT has a gap, TSLA only starts later and AAPL ends first.
+                Path file = tempDir.resolve("sparse.csv");
+                Files.writeString(file, "ticker,volume,open,close,high,low,window_start,transactions\n"
+                                + "AAPL,100,1.0,1.0,1.0,1.0,60,1\n"
+                                + "AAPL,100,2.0,2.0,2.0,2.0,120,1\n"
+                                + "MSFT,100,10.0,10.0,10.0,10.0,60,1\n"
+                                + "MSFT,100,30.0,30.0,30.0,30.0,180,1\n"
+                                + "TSLA,100,100.0,100.0,100.0,100.0,120,1\n"
+                                + "TSLA,100,300.0,300.0,300.0,300.0,180,1\n"
+                                + "TSLA,100,400.0,400.0,400.0,400.0,240,1\n");
+
+                for (Data data : new Data[] {new CSVData().init(file.toString()),
+                                new ColumnarCSVData().init(file.toString())}) {
+                        StockExchange exchange = new StockExchange(1_000_000, data);
+
+                        assertTimeStamp(exchange.next(), 60, Set.of("AAPL", "MSFT"));
+                        assertTimeStamp(exchange.next(), 120, Set.of("AAPL", "TSLA"));
+                        assertTimeStamp(exchange.next(), 180, Set.of("MSFT", "TSLA"));
+                        assertTimeStamp(exchange.next(), 240, Set.of("TSLA"));
+                        assertTrue(exchange.next().isEmpty());
+                        assertTrue(exchange.next().isEmpty());
+                        assertEquals(4, exchange.getRiskMetrics().getCount());
+                        assertTrue(exchange.getPerformanceSeries().isEmpty());
+                }
+        }
+
+        @Test
+        public void dayFilesOfDifferentLengthsAreMerged() throws Exception {
+                // The second day is sparse, so its file has fewer lines than the first one.
+                Path directory = Files.createDirectory(tempDir.resolve("days"));
+                String header = "ticker,volume,open,close,high,low,window_start,transactions\n";
+                Files.writeString(directory.resolve("2024-10-01.csv"), header
+                                + "AAPL,100,1.0,1.0,1.0,1.0,60,1\n"
+                                + "MSFT,100,10.0,10.0,10.0,10.0,60,1\n"
+                                + "AAPL,100,2.0,2.0,2.0,2.0,120,1\n");
+                Files.writeString(directory.resolve("2024-10-02.csv"), header
+                                + "MSFT,100,20.0,20.0,20.0,20.0,86460,1\n");
+
+                CSVData data = (CSVData) new CSVData().init(directory.toString());
+                assertEquals(4, data.size());
+                StockExchange exchange = new StockExchange(1_000_000, data);
+                assertTimeStamp(exchange.next(), 60, Set.of("AAPL", "MSFT"));
+                assertTimeStamp(exchange.next(), 120, Set.of("AAPL"));
+                assertTimeStamp(exchange.next(), 86460, Set.of("MSFT"));
+                assertTrue(exchange.next().isEmpty());
+        }
+
+        @Test
+        public void exchangesOfAConnectionAreInterleavedByTime() throws Exception {
+                // Minute bars on the first exchange, bars every three minutes on the second one,
+                // which also runs longer.
+                StringBuilder minutes = new StringBuilder(
+                                "ticker,volume,open,close,high,low,window_start,transactions\n");
+                for (int i = 0; i < 6; i++) {
+                        minutes.append("AAPL,100,1.0,1.0,1.0,1.0,").append(60 * i).append(",1\n");
+                }
+                StringBuilder threeMinutes = new StringBuilder(
+                                "ticker,volume,open,close,high,low,window_start,transactions\n");
+                for (int i = 0; i < 4; i++) {
+                        threeMinutes.append("SAP,100,1.0,1.0,1.0,1.0,").append(180 * i).append(",1\n");
+                }
+                Path minuteFile = tempDir.resolve("minutes.csv");
+                Path threeMinuteFile = tempDir.resolve("three-minutes.csv");
+                Files.writeString(minuteFile, minutes);
+                Files.writeString(threeMinuteFile, threeMinutes);
+
+                List<String> received = new ArrayList<>();
+                Strategy recorder = new Strategy() {
+                        @Override
+                        public void handleNewPrice(DataPoint dataPoint) {
+                                received.add(((PriceDataPoint) dataPoint).id() + "@" + dataPoint.timeStamp());
+                        }
+
+                        @Override
+                        public void addConnection(Connection connection) {}
+                };
+                new Backtest.Builder()
+                                .add(new StockExchange(1_000_000, new ColumnarCSVData().init(minuteFile.toString())))
+                                .add(new StockExchange(1_000_000,
+                                                new ColumnarCSVData().init(threeMinuteFile.toString())))
+                                .add(recorder).build().run();
+
+                assertEquals(List.of("AAPL@0", "SAP@0", "AAPL@60", "AAPL@120", "AAPL@180", "SAP@180",
+                                "AAPL@240", "AAPL@300", "SAP@360", "SAP@540"), received);
+        }
+
+        @Test
+        public void handleNewBarReceivesTheCrossSection() throws Exception {
+                StringBuilder csv = new StringBuilder(
+                                "ticker,volume,open,close,high,low,window_start,transactions\n");
+                for (int i = 0; i < 3; i++) {
+                        csv.append("AAPL,100,1.0,1.0,1.0,1.0,").append(60 * i).append(",1\n");
+                        csv.append("SAP,100,2.0,2.0,2.0,2.0,").append(60 * i).append(",1\n");
+                }
+                csv.append("SAP,100,2.0,2.0,2.0,2.0,180,1\n");
+                Path file = tempDir.resolve("cross-section.csv");
+                Files.writeString(file, csv);
+
+                List<String> received = new ArrayList<>();
+                Strategy recorder = new Strategy() {
+                        @Override
+                        public void handleNewPrice(DataPoint dataPoint) {
+                                throw new IllegalStateException("handleNewBar is overridden");
+                        }
+
+                        @Override
+                        public void handleNewBar(BarSnapshot bars) {
+                                List<String> tickers = new ArrayList<>();
+                                for (int i = 0; i < bars.size(); i++) {
+                                        tickers.add(bars.ticker(i) + "=" + bars.open(i));
+                                }
+                                Collections.sort(tickers);
+                                received.add(bars.timeStamp() + " " + tickers);
+                        }
+
+                        @Override
+                        public void addConnection(Connection connection) {}
+                };
+                new Backtest.Builder()
+                                .add(new StockExchange(1_000_000, new ColumnarCSVData().init(file.toString())))
+                                .add(recorder).build().run();
+
+                assertEquals(List.of("0 [AAPL=1.0, SAP=2.0]", "60 [AAPL=1.0, SAP=2.0]",
+                                "120 [AAPL=1.0, SAP=2.0]", "180 [SAP=2.0]"), received);
+        }
+
+        private static void assertTimeStamp(HashMap<String, DataPoint> dataPoints, long timeStamp,
+                        Set<String> tickers) {
+                assertEquals(tickers, dataPoints.keySet());
+                for (DataPoint dataPoint : dataPoints.values()) {
+                        assertEquals(timeStamp, dataPoint.timeStamp());
+                }
+        }
+
+}
@@ -0,0 +1,64 @@
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import com.backt4j.data.FlatFileParser;
+
+/***
+ * Compares the byte parser of {@link FlatFileParser} with the {@code opencsv} based parsing on a
+ * synthetic Flat File. Run with the target size of the file in MB as the first argument (default
+ * 2048) and a heap large enough to hold the parsed columns.
+ */
+public class FlatFileParserBenchmark {
+
+        public static void main(String[] args) throws Exception {
+                long targetBytes = (args.length > 0 ? Long.parseLong(args[0]) : 2048) << 20;
+                Path file = Files.createTempFile("backt4j-benchmark", ".csv");
+                try {
+                        writeSyntheticFile(file, targetBytes);
+                        double megabytes = Files.size(file) / (1024.0 * 1024.0);
+                        System.out.printf("Synthetic file: %.0f MB%n", megabytes);
+
+                        for (int round = 0; round < 3; round++) {
+                                long start = System.nanoTime();
+                                int lines = FlatFileParser.parseWithOpenCsv(file).lines();
+                                double openCsvSeconds = (System.nanoTime() - start) / 1e9;
+
+                                start = System.nanoTime();
+                                int byteLines = FlatFileParser.parse(file).lines();
+                                double byteSeconds = (System.nanoTime() - start) / 1e9;
+
+                                System.out.printf(
+                                                "Round %d: opencsv %.2fs (%.0f MB/s), byte parser %.2fs (%.0f MB/s), %d/%d lines%n",
+                                                round, openCsvSeconds, megabytes / openCsvSeconds,
+                                                byteSeconds, megabytes / byteSeconds, lines, byteLines);
+                        }
+                } finally {
+                        Files.deleteIfExists(file);
+                }
+        }
+
+        private static void writeSyntheticFile(Path file, long targetBytes) throws Exception {
+                Random random = new Random(1);
+                long written = 0;
+                long windowStart = 1727791800000000000L;
+                try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+                        writer.write("ticker,volume,open,close,high,low,window_start,transactions\n");
+                        int ticker = 0;
+                        while (written < targetBytes) {
+                                String name = "T" + ticker++;
+                                double price = 10 + random.nextInt(50_000) / 100.0;
+                                for (int i = 0; i < 390; i++) {
+                                        price = Math.max(0.01, price + (random.nextInt(201) - 100) / 100.0);
+                                        String line = String.format("%s,%d,%.2f,%.2f,%.2f,%.2f,%d,%d%n", name,
+                                                        random.nextInt(1_000_000), price, price + 0.05,
+                                                        price + 0.10, price - 0.10,
+                                                        windowStart + i * 60_000_000_000L, random.nextInt(5_000));
+                                        writer.write(line);
+                                        written += line.length();
+                                }
+                        }
+                }
+        }
+
+}
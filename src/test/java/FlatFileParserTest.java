@@ -0,0 +1,124 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.backt4j.data.ColumnarCSVData;
+import com.backt4j.data.FlatFileParser;
+import com.backt4j.data.PriceColumns;
+
+public class FlatFileParserTest {
+
+        @TempDir
+        Path tempDir;
+
+        @Test
+        public void byteParserMatchesOpenCsv() throws Exception {
+                Random random = new Random(42);
+                StringBuilder content = new StringBuilder(
+                                "ticker,volume,open,close,high,low,window_start,transactions\n");
+                String[] tickers = {"A", "AAPL", "BRK.B", "MSFT", "TSLA"};
+                String[] decimals = {"0.05", "-1.5", "172.45", "3.141592653589793238", "1e3",
+                                "0.000000123", "12345678901234567890.5", "7", "2.50"};
+                for (String ticker : tickers) {
+                        for (int i = 0; i < 200; i++) {
+                                content.append(ticker).append(',').append(random.nextInt(5_000_000));
+                                for (int column = 0; column < 4; column++) {
+                                        content.append(',');
+                                        if (random.nextInt(4) == 0) {
+                                                content.append(decimals[random.nextInt(decimals.length)]);
+                                        } else {
+                                                content.append(random.nextInt(100_000) / 100.0);
+                                        }
+                                }
+                                content.append(',').append(1727791800000000000L + i * 60_000_000_000L)
+                                                .append(',').append(random.nextInt(10_000))
+                                                .append(i % 7 == 0 ? "\r\n" : "\n");
+                        }
+                }
+                Path file = tempDir.resolve("random.csv");
+                Files.writeString(file, content);
+
+                assertSameColumns(FlatFileParser.parseWithOpenCsv(file), FlatFileParser.parse(file));
+        }
+
+        @Test
+        public void quotedFieldsFallBackToOpenCsv() throws Exception {
+                Path file = tempDir.resolve("quoted.csv");
+                Files.writeString(file, "ticker,volume,open,close,high,low,window_start,transactions\n"
+                                + "AAPL,100,1.5,2.5,3.5,0.5,1727791800,10\n"
+                                + "\"MSFT\",200,10.25,11.5,12.0,9.75,1727791800,\"20\"\n");
+
+                FlatFileParser.Result result = FlatFileParser.parse(file);
+                assertEquals(2, result.lines());
+                assertEquals(20, result.columns().get("MSFT").transactions(0));
+                assertSameColumns(FlatFileParser.parseWithOpenCsv(file), result);
+        }
+
+        @Test
+        public void nanosecondTimeStampsAreParsedInPlace() throws Exception {
+                // Long.MAX_VALUE itself is the exclusive end of the default time range.
+                Path file = tempDir.resolve("nanoseconds.csv");
+                Files.writeString(file, "ticker,volume,open,close,high,low,window_start,transactions\n"
+                                + "AAPL,100,1.5,2.5,3.5,0.5,1727791800000000000,10\n"
+                                + "AAPL,100,1.5,2.5,3.5,0.5,9223372036854775806,10\n");
+
+                PriceColumns columns = FlatFileParser.parse(file).columns().get("AAPL");
+                assertEquals(1727791800000000000L, columns.windowStart(0));
+                assertEquals(Long.MAX_VALUE - 1, columns.windowStart(1));
+
+                Path overflow = tempDir.resolve("overflow.csv");
+                Files.writeString(overflow, "ticker,volume,open,close,high,low,window_start,transactions\n"
+                                + "AAPL,100,1.5,2.5,3.5,0.5,9223372036854775808,10\n");
+                // A value beyond Long.MAX_VALUE is reported like any malformed line and skipped.
+                assertFalse(FlatFileParser.parse(overflow).columns().containsKey("AAPL"));
+        }
+
+        private static void assertSameColumns(FlatFileParser.Result expected,
+                        FlatFileParser.Result actual) {
+                assertEquals(expected.lines(), actual.lines());
+                assertEquals(expected.columns().keySet(), actual.columns().keySet());
+                for (String ticker : expected.columns().keySet()) {
+                        PriceColumns e = expected.columns().get(ticker);
+                        PriceColumns a = actual.columns().get(ticker);
+                        assertEquals(e.length(), a.length());
+                        for (int i = 0; i < e.length(); i++) {
+                                assertEquals(e.toDataPoint(i), a.toDataPoint(i));
+                        }
+                }
+        }
+
+        @Test
+        public void gzipFilesAreInflatedWhileParsing() throws Exception {
+                // Large enough to span several chunks of the inflating thread.
+                StringBuilder content = new StringBuilder(
+                                "ticker,volume,open,close,high,low,window_start,transactions\n");
+                for (int ticker = 0; ticker < 50; ticker++) {
+                        for (int i = 0; i < 1000; i++) {
+                                content.append("T").append(ticker).append(',').append(i).append(',')
+                                                .append(i / 100.0).append(",1.25,2.5,0.75,")
+                                                .append(1727791800L + 60 * i).append(',').append(ticker)
+                                                .append('\n');
+                        }
+                }
+                Path directory = Files.createDirectory(tempDir.resolve("flatfiles"));
+                Path plain = tempDir.resolve("plain.csv");
+                Files.writeString(plain, content);
+                Path gzip = directory.resolve("2024-10-01.csv.gz");
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzip))) {
+                        out.write(content.toString().getBytes());
+                }
+
+                FlatFileParser.Result result = FlatFileParser.parse(gzip);
+                assertEquals(50_000, result.lines());
+                assertSameColumns(FlatFileParser.parse(plain), result);
+
+                ColumnarCSVData data = (ColumnarCSVData) new ColumnarCSVData().init(directory.toString());
+                assertEquals(50_000, data.size());
+        }
+
+}
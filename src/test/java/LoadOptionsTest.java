@@ -0,0 +1,74 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.backt4j.data.BarCursor;
+import com.backt4j.data.CSVData;
+import com.backt4j.data.ColumnarCSVData;
+import com.backt4j.data.LoadOptions;
+
+public class LoadOptionsTest {
+
+        private static final String TEST_DATA =
+                        new File("src/test/resources").getAbsolutePath() + "/testdata.csv";
+
+        @Test
+        public void tickersAndTimeRangeAreFiltered() throws Exception {
+                LoadOptions options = new LoadOptions.Builder().tickers(List.of("AAPL", "TSLA"))
+                                .from(1727795400L).to(1727802600L).build();
+
+                ColumnarCSVData columnarData =
+                                (ColumnarCSVData) new ColumnarCSVData().init(TEST_DATA, options);
+                assertEquals(Set.of("AAPL", "TSLA"), columnarData.getTickers());
+                assertEquals(2, columnarData.length("AAPL"));
+                BarCursor cursor = columnarData.cursor("TSLA");
+                assertTrue(cursor.next());
+                assertEquals(1727795400L, cursor.windowStart());
+                assertTrue(cursor.next());
+                assertEquals(1727799000L, cursor.windowStart());
+                assertFalse(cursor.next());
+
+                CSVData csvData = (CSVData) new CSVData().init(TEST_DATA, options);
+                assertEquals(Set.of("AAPL", "TSLA"), csvData.getValues().keySet());
+                assertEquals(columnarData.getValues().get("AAPL"), csvData.getValues().get("AAPL"));
+        }
+
+        @Test
+        public void filesOutsideTheTimeRangeAreSkipped(@TempDir Path tempDir) throws Exception {
+                Path directory = Files.createDirectory(tempDir.resolve("flatfiles"));
+                TestData.writeTwoDays(directory);
+                Path firstFile = directory.resolve("2024-10-01.csv");
+
+                LoadOptions secondDayOnly = new LoadOptions.Builder().from(1727791800L + 86400).build();
+                ColumnarCSVData data = (ColumnarCSVData) new ColumnarCSVData()
+                                .init(directory.toString(), secondDayOnly);
+                assertEquals(25, data.size());
+                assertTrue(Files.exists(tempDir.resolve("flatfiles.b4i")));
+
+                // Replace the first file by one of the same size and modification time, which
+                // contains a bar in the range. As the index rules the file out, it is not read.
+                FileTime lastModified = Files.getLastModifiedTime(firstFile);
+                String header = Files.readAllLines(Path.of(TEST_DATA)).get(0);
+                String replacement = header + "\nZZZZ,1,1.0,1.0,1.0,1.0," + (1727791800L + 86400)
+                                + ",1\n";
+                replacement += "\n".repeat((int) Files.size(firstFile) - replacement.length());
+                Files.writeString(firstFile, replacement);
+                Files.setLastModifiedTime(firstFile, lastModified);
+
+                data = (ColumnarCSVData) new ColumnarCSVData().init(directory.toString(), secondDayOnly);
+                assertEquals(25, data.size());
+                assertFalse(data.getTickers().contains("ZZZZ"));
+
+                // The index next to the directory is not parsed when its parent is loaded.
+                data = (ColumnarCSVData) new ColumnarCSVData().init(tempDir.toString());
+                assertEquals(26, data.size());
+        }
+
+}
@@ -0,0 +1,68 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.backt4j.data.BarCursor;
+import com.backt4j.data.BinaryCache;
+import com.backt4j.data.CSVData;
+import com.backt4j.data.ColumnarCSVData;
+import com.backt4j.data.MappedData;
+
+public class MappedDataTest {
+
+        @TempDir
+        Path tempDir;
+
+        @Test
+        public void cacheIsWrittenAndRebuiltWhenStale() throws Exception {
+                Path source = tempDir.resolve("testdata.csv");
+                Files.copy(new File("src/test/resources/testdata.csv").toPath(), source);
+                Path cache = BinaryCache.cachePath(source);
+                assertTrue(BinaryCache.isStale(source, cache));
+
+                MappedData mappedData = (MappedData) new MappedData().init(source.toString());
+                assertTrue(Files.exists(cache));
+                assertFalse(BinaryCache.isStale(source, cache));
+
+                // Every bar must match the parsed CSV file.
+                ColumnarCSVData csvData = (ColumnarCSVData) new ColumnarCSVData().init(source.toString());
+                assertEquals(csvData.getTickers(), mappedData.getTickers());
+                assertEquals(csvData.size(), mappedData.size());
+                for (String ticker : csvData.getTickers()) {
+                        assertEquals(csvData.getValues().get(ticker), mappedData.getValues().get(ticker));
+                }
+
+                // Opening the cache file directly yields the same bars.
+                MappedData directData = (MappedData) new MappedData().init(cache.toString());
+                BarCursor cursor = directData.cursor("TSLA");
+                assertTrue(cursor.next());
+                assertEquals(265.00, cursor.open());
+                assertEquals(1727791800L, cursor.windowStart());
+
+                // Changing the source invalidates the cache, which is rebuilt by init().
+                Files.writeString(source, "\nNVDA,100,1.0,2.0,3.0,0.5,1727791800,10\n",
+                                StandardOpenOption.APPEND);
+                assertTrue(BinaryCache.isStale(source, cache));
+                mappedData = (MappedData) new MappedData().init(source.toString());
+                assertFalse(BinaryCache.isStale(source, cache));
+                assertEquals(26, mappedData.size());
+                assertEquals(1, mappedData.length("NVDA"));
+        }
+
+        @Test
+        public void cacheNextToADayFileIsNotLoadedWithItsDirectory() throws Exception {
+                Files.copy(new File("src/test/resources/testdata.csv").toPath(),
+                                tempDir.resolve("2024-10-01.csv"));
+                new MappedData().init(tempDir.resolve("2024-10-01.csv").toString());
+                assertTrue(Files.exists(tempDir.resolve("2024-10-01.csv" + BinaryCache.EXTENSION)));
+
+                assertEquals(25, new CSVData().init(tempDir.toString()).size());
+                assertEquals(25, new ColumnarCSVData().init(tempDir.toString()).size());
+        }
+
+}
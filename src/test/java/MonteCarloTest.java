@@ -0,0 +1,57 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import com.backt4j.analysis.MonteCarlo;
+
+public class MonteCarloTest {
+
+        private static final double[] TRADES = {0.02, -0.01, 0.03, -0.04, 0.01, 0.015, -0.02, 0.005};
+
+        @Test
+        public void runsAreReproducibleOnAnyAmountOfThreads() throws Exception {
+                ForkJoinPool single = new ForkJoinPool(1);
+                try {
+                        MonteCarlo.Report parallel = new MonteCarlo.Builder().trades(TRADES)
+                                        .replays(20_000).seed(7).build().run();
+                        MonteCarlo.Report sequential = new MonteCarlo.Builder().trades(TRADES)
+                                        .replays(20_000).seed(7).pool(single).build().run();
+                        for (double p : new double[] {0.0, 0.05, 0.5, 0.95, 1.0}) {
+                                assertEquals(parallel.getFinalReturn().quantile(p),
+                                                sequential.getFinalReturn().quantile(p));
+                                assertEquals(parallel.getMaxDrawdown().quantile(p),
+                                                sequential.getMaxDrawdown().quantile(p));
+                                assertEquals(parallel.getVolatility().quantile(p),
+                                                sequential.getVolatility().quantile(p));
+                        }
+                        assertEquals(20_000, parallel.getFinalReturn().size());
+
+                        // The bootstrap is centered around the mean trade.
+                        double mean = 0.0;
+                        for (double trade : TRADES) {
+                                mean += trade;
+                        }
+                        assertEquals(mean, parallel.getFinalReturn().getMean(), 1e-3);
+                } finally {
+                        single.shutdown();
+                }
+        }
+
+        @Test
+        public void permutationsOnlyChangeThePath() throws Exception {
+                MonteCarlo.Report report = new MonteCarlo.Builder().trades(TRADES)
+                                .method(MonteCarlo.Method.PERMUTATION).replays(5_000).build().run();
+
+                // Every order ends with the sum of the trades.
+                assertEquals(report.getFinalReturn().getMin(), report.getFinalReturn().getMax(),
+                                1e-12);
+                assertEquals(0.01, report.getFinalReturn().getMedian(), 1e-12);
+
+                // Losing all three losses in a row from a peak of at least 1 is the worst case.
+                assertTrue(report.getMaxDrawdown().getMin() >= 0.0);
+                assertTrue(report.getMaxDrawdown().getMax() <= 0.07 + 1e-12);
+                assertTrue(report.getMaxDrawdown().quantile(0.05)
+                                <= report.getMaxDrawdown().quantile(0.95));
+        }
+
+}
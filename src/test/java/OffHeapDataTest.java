@@ -0,0 +1,38 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.backt4j.data.BarCursor;
+import com.backt4j.data.ColumnarCSVData;
+import com.backt4j.data.OffHeapData;
+
+public class OffHeapDataTest {
+
+        @Test
+        public void directoriesMatchColumnarCSVData(@TempDir Path tempDir) throws Exception {
+                TestData.writeTwoDays(tempDir);
+
+                ColumnarCSVData columnarData =
+                                (ColumnarCSVData) new ColumnarCSVData().init(tempDir.toString());
+                OffHeapData offHeapData = (OffHeapData) new OffHeapData().init(tempDir.toString());
+
+                assertEquals(columnarData.getTickers(), offHeapData.getTickers());
+                assertEquals(50, offHeapData.size());
+                assertEquals(50L * 48, offHeapData.offHeapBytes());
+                for (String ticker : columnarData.getTickers()) {
+                        assertEquals(columnarData.getValues().get(ticker),
+                                        offHeapData.getValues().get(ticker));
+                }
+
+                // Cursors created before close() stay readable.
+                BarCursor cursor = offHeapData.cursor("AAPL");
+                offHeapData.close();
+                assertTrue(offHeapData.isClosed());
+                assertThrows(IllegalStateException.class, () -> offHeapData.cursor("AAPL"));
+                assertTrue(cursor.next());
+                assertEquals(172.45, cursor.open());
+        }
+
+}
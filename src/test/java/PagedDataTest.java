@@ -0,0 +1,53 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.nio.file.Path;
+import java.util.HashMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.backt4j.core.Backtest;
+import com.backt4j.core.StockExchange;
+import com.backt4j.data.ColumnarCSVData;
+import com.backt4j.data.DataPoint;
+import com.backt4j.data.PagedData;
+import com.backt4j.strategy.TestStrategy;
+
+public class PagedDataTest {
+
+        @Test
+        public void pagesMatchColumnarCSVData(@TempDir Path tempDir) throws Exception {
+                TestData.writeTwoDays(tempDir);
+
+                PagedData pagedData = (PagedData) new PagedData().init(tempDir.toString());
+                assertEquals(2, pagedData.getFiles().size());
+                PagedData.Pages pages = pagedData.pages();
+                assertEquals(25, pages.next().size());
+                assertEquals(25, pages.next().size());
+                assertFalse(pages.hasNext());
+
+                // The Exchange hands out the same bars as for the fully loaded directory.
+                StockExchange columnarExchange = new StockExchange(1_000_000,
+                                new ColumnarCSVData().init(tempDir.toString()));
+                StockExchange pagedExchange = new StockExchange(1_000_000, pagedData);
+                int ticks = 0;
+                HashMap<String, DataPoint> expected;
+                while (!(expected = columnarExchange.next()).isEmpty()) {
+                        assertEquals(expected, pagedExchange.next());
+                        ticks++;
+                }
+                assertEquals(10, ticks);
+                assertTrue(pagedExchange.next().isEmpty());
+
+                StockExchange columnarBacktest = new StockExchange(1_000_000,
+                                new ColumnarCSVData().init(tempDir.toString()));
+                new Backtest.Builder().add(columnarBacktest).add(new TestStrategy(1000.0, 0.01))
+                                .build().run();
+                StockExchange pagedBacktest = new StockExchange(1_000_000,
+                                new PagedData().init(tempDir.toString()));
+                new Backtest.Builder().add(pagedBacktest).add(new TestStrategy(1000.0, 0.01))
+                                .build().run();
+                assertEquals(columnarBacktest.getResult().getAbsPerformance(),
+                                pagedBacktest.getResult().getAbsPerformance());
+        }
+
+}
@@ -0,0 +1,71 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.File;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import com.backt4j.analysis.ParameterSweep;
+import com.backt4j.core.Backtest;
+import com.backt4j.core.StockExchange;
+import com.backt4j.data.CSVData;
+import com.backt4j.data.ColumnarCSVData;
+import com.backt4j.strategy.TestStrategy;
+
+public class ParameterSweepTest {
+
+        private static final String TEST_DATA =
+                        new File("src/test/resources").getAbsolutePath() + "/testdata.csv";
+
+        @Test
+        public void sweepRanksEveryCombination() throws Exception {
+                ParameterSweep sweep = new ParameterSweep.Builder()
+                                .data(new ColumnarCSVData().init(TEST_DATA))
+                                .budget(1_000_000)
+                                .strategy(parameters -> new TestStrategy(parameters.get("buy"),
+                                                parameters.get("sell")))
+                                .range("buy", 100.0, 300.0, 100.0)
+                                .parameter("sell", 0.0, 0.01, 0.02, 0.05)
+                                .top(5).build();
+                assertEquals(12, sweep.size());
+                assertEquals(200.0, sweep.parameters(5).get("buy"));
+                assertEquals(0.01, sweep.parameters(5).get("sell"));
+
+                List<ParameterSweep.Row> table = sweep.run();
+                assertEquals(12, sweep.getCompleted());
+                assertEquals(5, table.size());
+                for (int i = 1; i < table.size(); i++) {
+                        assertTrue(table.get(i - 1).score() >= table.get(i).score());
+                }
+
+                // Every row matches a backtest of its own.
+                for (ParameterSweep.Row row : table) {
+                        StockExchange exchange = new StockExchange(1_000_000,
+                                        new CSVData().init(TEST_DATA));
+                        new Backtest.Builder().add(exchange)
+                                        .add(new TestStrategy(row.parameters().get("buy"),
+                                                        row.parameters().get("sell")))
+                                        .quiet().build().run();
+                        assertEquals(exchange.getResult().getAbsPerformance(), row.score(), 1e-9);
+                }
+
+                // The ranking doesn't depend on the order the tasks finish in.
+                assertEquals(table.stream().map(ParameterSweep.Row::index).toList(),
+                                sweep.run().stream().map(ParameterSweep.Row::index).toList());
+        }
+
+        @Test
+        public void threeValuesAreAListAndNotARange() throws Exception {
+                ParameterSweep sweep = new ParameterSweep.Builder()
+                                .data(new ColumnarCSVData().init(TEST_DATA))
+                                .budget(1_000_000)
+                                .strategy(parameters -> new TestStrategy(parameters.get("buy"),
+                                                parameters.get("sell")))
+                                .parameter("buy", 900.0, 1000.0, 1100.0)
+                                .parameter("sell", 0.0, 0.01, 0.05)
+                                .build();
+                assertEquals(9, sweep.size());
+                assertEquals(1100.0, sweep.parameters(8).get("buy"));
+                assertEquals(0.05, sweep.parameters(8).get("sell"));
+                assertEquals(9, sweep.run().size());
+        }
+
+}
@@ -0,0 +1,65 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.File;
+import org.junit.jupiter.api.Test;
+import com.backt4j.core.StockExchange;
+import com.backt4j.data.BarCursor;
+import com.backt4j.data.CSVData;
+import com.backt4j.data.ColumnarCSVData;
+import com.backt4j.data.ResampledData;
+
+public class ResampledDataTest {
+
+        private static final String TEST_DATA =
+                        new File("src/test/resources").getAbsolutePath() + "/testdata.csv";
+
+        @Test
+        public void barsAreAggregatedPerInterval() throws Exception {
+                // The test data holds hourly bars, which are resampled to 2 hour bars.
+                ResampledData resampled = new ResampledData(new ColumnarCSVData().init(TEST_DATA), 7200);
+                assertEquals(3, resampled.length("AAPL"));
+                assertEquals(15, resampled.size());
+
+                BarCursor cursor = resampled.cursor("AAPL");
+                assertTrue(cursor.next());
+                assertEquals(1727791200L, cursor.windowStart());
+                assertEquals(172.45, cursor.open());
+                assertEquals(173.55, cursor.close());
+                assertEquals(175.20, cursor.high());
+                assertEquals(171.80, cursor.low());
+                assertEquals(1253400 + 1187600, cursor.volume());
+                assertEquals(342 + 311, cursor.transactions());
+
+                assertTrue(cursor.next());
+                assertEquals(173.60, cursor.open());
+                assertEquals(176.80, cursor.close());
+                assertTrue(cursor.next());
+                assertEquals(176.85, cursor.open());
+                assertFalse(cursor.next());
+                assertEquals(3, cursor.position());
+
+                cursor.seek(1);
+                assertEquals(177.50, cursor.high());
+                assertEquals(1727798400L, cursor.windowStart());
+
+                // Resampling the records of CSVData yields the same bars.
+                ResampledData resampledCSV = new ResampledData(new CSVData().init(TEST_DATA), 7200);
+                for (String ticker : resampled.getTickers()) {
+                        assertEquals(resampled.getValues().get(ticker),
+                                        resampledCSV.getValues().get(ticker));
+                }
+        }
+
+        @Test
+        public void exchangeStreamsResampledBars() throws Exception {
+                StockExchange exchange = new StockExchange(1_000_000,
+                                new ResampledData(new ColumnarCSVData().init(TEST_DATA), 7200));
+                int ticks = 0;
+                while (!exchange.next().isEmpty()) {
+                        ticks++;
+                }
+                assertEquals(3, ticks);
+        }
+
+}
@@ -0,0 +1,61 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import com.backt4j.core.RiskMetrics;
+
+public class RiskMetricsTest {
+
+        @Test
+        public void drawdownIsMeasuredFromThePeak() {
+                RiskMetrics metrics = new RiskMetrics();
+                metrics.reset(100.0);
+                double[] equity = {110.0, 99.0, 88.0, 105.0, 120.0, 114.0};
+                for (int i = 0; i < equity.length; i++) {
+                        metrics.update(60L * (i + 1), equity[i], i < 3 ? 50.0 : 0.0);
+                }
+
+                // From 110 down to 88, and below the peak of 110 from time stamp 60 to 240.
+                assertEquals(0.2, metrics.getMaxDrawdown(), 1e-12);
+                assertEquals(3, metrics.getMaxDrawdownPoints());
+                assertEquals(180, metrics.getMaxDrawdownDuration());
+                assertEquals(0.05, metrics.getDrawdown(), 1e-12);
+                assertEquals(0.5, metrics.getTimeInMarket(), 1e-12);
+                assertEquals((50.0 / 110 + 50.0 / 99 + 50.0 / 88) / 6, metrics.getExposure(), 1e-12);
+        }
+
+        @Test
+        public void onlineMomentsMatchTwoPasses() {
+                Random random = new Random(7);
+                double[] returns = new double[10_000];
+                RiskMetrics metrics = new RiskMetrics();
+                metrics.reset(1_000_000.0);
+                double equity = 1_000_000.0;
+                for (int i = 0; i < returns.length; i++) {
+                        double newEquity = equity * (1 + random.nextGaussian() * 0.01 + 0.0002);
+                        returns[i] = newEquity / equity - 1;
+                        equity = newEquity;
+                        metrics.update(i, equity, 0.0);
+                }
+
+                double mean = 0;
+                for (double value : returns) {
+                        mean += value;
+                }
+                mean /= returns.length;
+                double variance = 0;
+                double downside = 0;
+                for (double value : returns) {
+                        variance += (value - mean) * (value - mean);
+                        downside += value < 0 ? value * value : 0;
+                }
+                variance /= returns.length;
+                downside = Math.sqrt(downside / returns.length);
+
+                assertEquals(mean, metrics.getMeanReturn(), 1e-15);
+                assertEquals(Math.sqrt(variance), metrics.getVolatility(), 1e-12);
+                assertEquals(mean / Math.sqrt(variance), metrics.getSharpeRatio(), 1e-9);
+                assertEquals(mean / downside, metrics.getSortinoRatio(), 1e-9);
+                assertEquals(equity, metrics.getEquity());
+        }
+
+}
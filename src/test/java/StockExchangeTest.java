@@ -1,8 +1,16 @@
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.backt4j.core.OrderBook;
 import com.backt4j.core.StockExchange;
+import com.backt4j.core.TradeJournal;
+import com.backt4j.data.ColumnarCSVData;
 import com.backt4j.data.CSVData;
 
 public class StockExchangeTest {
@@ -90,4 +98,140 @@ public class StockExchangeTest {
                 assertEquals(stockExchange.getOpenPositionAmounts().get("AAPL"), 0);
         }
 
+        @Test
+        public void incrementalValuationMatchesLots() throws Exception {
+                File resourcesDirectory = new File("src/test/resources");
+                StockExchange stockExchange = new StockExchange(1000000000,
+                                new CSVData().init(resourcesDirectory.getAbsolutePath() + "/testdata.csv"));
+                Random random = new Random(42);
+                String[] tickers = {"AAPL", "MSFT", "GOOGL"};
+
+                while (!stockExchange.next().isEmpty()) {
+                        for (int i = 0; i < 20; i++) {
+                                String ticker = tickers[random.nextInt(tickers.length)];
+                                int position = stockExchange.getOpenPositionAmount(
+                                                stockExchange.symbolOf(ticker));
+                                int amount = random.nextInt(1001) - 500;
+                                // Orders may reduce but not flip a position.
+                                if (position != 0 && Integer.signum(amount) != Integer.signum(position)) {
+                                        amount = Integer.signum(amount)
+                                                        * Math.min(Math.abs(amount), Math.abs(position));
+                                }
+                                if (amount != 0) {
+                                        stockExchange.marketOrder(ticker, amount,
+                                                        100 + random.nextInt(10000) / 100.0, 0);
+                                }
+                        }
+
+                        // Value every lot at the current price like the former implementation.
+                        double expected = 0.0;
+                        for (String ticker : stockExchange.getOpenPositions().keySet()) {
+                                double price = stockExchange.getCurrentOpen(stockExchange.symbolOf(ticker));
+                                for (StockExchange.Transaction t : stockExchange.getOpenPositions().get(ticker)) {
+                                        expected += t.amount() * (price - t.price());
+                                }
+                        }
+                        assertEquals(expected, stockExchange.getCurrentPortfolioValue(), 1e-6);
+                }
+        }
+
+        @Test
+        public void restingOrdersAreMatchedAgainstHighAndLow(@TempDir Path tempDir) throws Exception {
+                Path file = tempDir.resolve("orders.csv");
+                Files.writeString(file, "ticker,volume,open,close,high,low,window_start,transactions\n"
+                                + "AAPL,100,100.0,100.0,101.0,99.0,0,1\n"
+                                + "AAPL,100,100.0,100.0,103.0,97.0,60,1\n"
+                                + "AAPL,100,95.0,95.0,96.0,90.0,120,1\n"
+                                + "AAPL,100,110.0,110.0,112.0,108.0,180,1\n");
+                StockExchange exchange = new StockExchange(1_000_000,
+                                new ColumnarCSVData().init(file.toString()));
+                exchange.next();
+
+                OrderBook.Order buyLimit = exchange.limitOrder("AAPL", 100, 98.0, 0);
+                OrderBook.Order gapLimit = exchange.limitOrder("AAPL", 100, 92.0, 0);
+                OrderBook.Order restingLimit = exchange.limitOrder("AAPL", 100, 50.0, 0);
+                OrderBook.Order cancelledLimit = exchange.limitOrder("AAPL", 100, 60.0, 0);
+                OrderBook.Order sellLimit = exchange.limitOrder("AAPL", -100, 111.0, 0);
+                OrderBook.Order buyStop = exchange.stopOrder("AAPL", 10, 105.0, 0);
+                OrderBook.Order stopLimit = exchange.stopLimitOrder("AAPL", 10, 104.0, 106.0, 0);
+                assertTrue(exchange.cancelOrder(cancelledLimit));
+                assertFalse(exchange.cancelOrder(cancelledLimit));
+                assertEquals(6, exchange.getOrderBook().openOrders(exchange.symbolOf("AAPL")));
+
+                // The low of 97 reaches the limit of 98.
+                exchange.next();
+                assertEquals(OrderBook.Status.FILLED, buyLimit.status());
+                assertEquals(98.0, buyLimit.fillPrice());
+                assertEquals(60, buyLimit.fillTimeStamp());
+                assertEquals(OrderBook.Status.OPEN, gapLimit.status());
+
+                // The bar opens below the limit, so the order gets the open price.
+                exchange.next();
+                assertEquals(92.0, gapLimit.fillPrice());
+
+                // The buy stop is filled at the open above its stop price, while the stop-limit
+                // order is triggered but the bar never comes back to its limit.
+                exchange.next();
+                assertEquals(110.0, buyStop.fillPrice());
+                assertEquals(111.0, sellLimit.fillPrice());
+                assertEquals(OrderBook.Status.OPEN, stopLimit.status());
+                assertTrue(stopLimit.isTriggered());
+                assertEquals(OrderBook.Status.OPEN, restingLimit.status());
+                assertEquals(OrderBook.Status.CANCELLED, cancelledLimit.status());
+                assertEquals(2, exchange.getOrderBook().openOrders(exchange.symbolOf("AAPL")));
+
+                // The fills went through the position accounting.
+                assertEquals(4, exchange.getTransactions().size());
+                assertEquals(110, exchange.getOpenPositionAmounts().get("AAPL"));
+                assertEquals(100 * (111.0 - 98.0), exchange.getResult().getAbsPerformance());
+        }
+
+        @Test
+        public void journaledTransactionsMatchTheHeap(@TempDir Path tempDir) throws Exception {
+                File resourcesDirectory = new File("src/test/resources");
+                String testData = resourcesDirectory.getAbsolutePath() + "/testdata.csv";
+                // The budget must cover all trades, as selling a position only returns its profit.
+                StockExchange heapExchange = new StockExchange(1e12, new CSVData().init(testData));
+                StockExchange journaledExchange = new StockExchange(1e12, new CSVData().init(testData));
+                heapExchange.marketOrder("AAPL", 10, 100.0, 0);
+                journaledExchange.marketOrder("AAPL", 10, 100.0, 0);
+
+                Path file = tempDir.resolve("trades.b4t");
+                try (TradeJournal journal = TradeJournal.create(file)) {
+                        journaledExchange.setJournal(journal);
+                        int seriesSize = journaledExchange.getResult().getPerformanceSeries().size();
+                        // More trades than fit into one mapped chunk of the journal.
+                        for (int i = 1; i < 1_100_000; i++) {
+                                int amount = i % 2 == 0 ? 10 : -10;
+                                heapExchange.marketOrder("AAPL", amount, 100.0 + i % 7, i);
+                                journaledExchange.marketOrder("AAPL", amount, 100.0 + i % 7, i);
+                        }
+                        assertEquals(heapExchange.getTransactions().size(),
+                                        journaledExchange.getTransactions().size());
+                        assertEquals(heapExchange.getTransactions().get(1_048_580),
+                                        journaledExchange.getTransactions().get(1_048_580));
+                        assertEquals(heapExchange.getTransactions().get(0),
+                                        journaledExchange.getTransactions().get(0));
+                        assertEquals(heapExchange.getResult().getAbsPerformance(),
+                                        journaledExchange.getResult().getAbsPerformance());
+                        // The closed trades don't grow the performance series on the heap.
+                        assertEquals(seriesSize,
+                                        journaledExchange.getResult().getPerformanceSeries().size());
+                }
+
+                try (TradeJournal journal = TradeJournal.open(file)) {
+                        assertEquals(1_100_000, journal.size());
+                        TradeJournal.Cursor cursor = journal.cursor();
+                        long amounts = 0;
+                        while (cursor.next()) {
+                                amounts += cursor.amount();
+                        }
+                        assertEquals(heapExchange.getOpenPositionAmounts().get("AAPL"), (int) amounts);
+                        assertEquals(1_099_999, journal.timeStamp(1_099_999));
+                        // The tickers are read back from the sidecar file.
+                        assertEquals("AAPL", journal.ticker(1_099_999));
+                        assertEquals(journaledExchange.getSymbols().symbol(0), journal.symbolName(0));
+                }
+        }
+
 }
@@ -0,0 +1,33 @@
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/***
+ * Fixtures shared by the tests of the {@code Data} implementations.
+ */
+final class TestData {
+
+        static final String TEST_DATA =
+                        new File("src/test/resources").getAbsolutePath() + "/testdata.csv";
+
+        private TestData() {}
+
+        /***
+         * Writes the test data as the day file {@code 2024-10-01.csv} and a copy shifted by one day
+         * as {@code 2024-10-02.csv} into the directory. The second day is written first, so the
+         * order the files are created in differs from the order of their names.
+         */
+        static void writeTwoDays(Path directory) throws Exception {
+                List<String> lines = Files.readAllLines(Path.of(TEST_DATA));
+                String secondDay = lines.stream().skip(1).map(line -> {
+                        String[] fields = line.split(",");
+                        fields[6] = String.valueOf(Long.parseLong(fields[6]) + 86400);
+                        return String.join(",", fields);
+                }).collect(Collectors.joining("\n", lines.get(0) + "\n", "\n"));
+                Files.writeString(directory.resolve("2024-10-02.csv"), secondDay);
+                Files.copy(Path.of(TEST_DATA), directory.resolve("2024-10-01.csv"));
+        }
+
+}
@@ -0,0 +1,82 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.io.File;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import com.backt4j.analysis.ParameterSweep;
+import com.backt4j.analysis.WalkForward;
+import com.backt4j.core.Backtest;
+import com.backt4j.core.StockExchange;
+import com.backt4j.data.BarCursor;
+import com.backt4j.data.ColumnarCSVData;
+import com.backt4j.data.ColumnarData;
+import com.backt4j.data.SlicedData;
+import com.backt4j.strategy.TestStrategy;
+
+public class WalkForwardTest {
+
+        private static final String TEST_DATA =
+                        new File("src/test/resources").getAbsolutePath() + "/testdata.csv";
+
+        private static final long START = 1727791800L;
+        private static final long HOUR = 3600L;
+
+        @Test
+        public void sliceCoversTheBarsInItsRange() throws Exception {
+                ColumnarData data = (ColumnarData) new ColumnarCSVData().init(TEST_DATA);
+                SlicedData slice = new SlicedData(data, START + HOUR, START + 3 * HOUR);
+                assertEquals(10, slice.size());
+                assertEquals(2, slice.length("AAPL"));
+                BarCursor bars = slice.cursor("AAPL");
+                bars.next();
+                assertEquals(START + HOUR, bars.windowStart());
+                bars.seek(1);
+                assertEquals(START + 2 * HOUR, bars.windowStart());
+                assertEquals(false, bars.hasNext());
+                assertEquals(0, new SlicedData(data, START + 5 * HOUR, START + 6 * HOUR).size());
+        }
+
+        @Test
+        public void testWindowsRollForwardAndAreStitched() throws Exception {
+                ParameterSweep sweep = new ParameterSweep.Builder()
+                                .data(new ColumnarCSVData().init(TEST_DATA))
+                                .budget(1_000_000)
+                                .strategy(parameters -> new TestStrategy(parameters.get("buy"),
+                                                parameters.get("sell")))
+                                .range("buy", 100.0, 300.0, 100.0)
+                                .parameter("sell", 0.0, 0.01, 0.05)
+                                .build();
+                WalkForward.Report report = new WalkForward.Builder().sweep(sweep)
+                                .train(2 * HOUR).test(HOUR).build().run();
+
+                // Five hourly bars leave three test windows of one bar each.
+                List<WalkForward.Window> windows = report.getWindows();
+                assertEquals(3, windows.size());
+                assertEquals(3, report.getEquity().length);
+                double equity = 1_000_000;
+                for (WalkForward.Window window : windows) {
+                        assertEquals(START + window.index() * HOUR, window.trainFrom());
+                        assertEquals(window.trainTo(), window.testFrom());
+                        // The last test window ends just after the last bar.
+                        assertEquals(window.index() < 2 ? window.testFrom() + HOUR
+                                        : window.testFrom() + 1, window.testTo());
+                        assertEquals(window.testFrom(), report.getTimeStamps()[window.index()]);
+
+                        // The out-of-sample result matches a backtest of its own on the slice.
+                        StockExchange exchange = new StockExchange(1_000_000, new SlicedData(
+                                        (ColumnarData) new ColumnarCSVData().init(TEST_DATA),
+                                        window.testFrom(), window.testTo()));
+                        new Backtest.Builder().add(exchange)
+                                        .add(new TestStrategy(window.parameters().get("buy"),
+                                                        window.parameters().get("sell")))
+                                        .quiet().build().run();
+                        assertEquals(exchange.getResult().getAbsPerformance(),
+                                        window.testResult().getAbsPerformance(), 1e-6);
+
+                        // Every window continues with the equity the one before it ended with.
+                        equity *= exchange.getRiskMetrics().getEquity() / 1_000_000;
+                        assertEquals(equity, report.getEquity()[window.index()], 1e-6);
+                }
+                assertEquals(equity - 1_000_000, report.getResult().getAbsPerformance(), 1e-6);
+        }
+
+}